@@ -0,0 +1,391 @@
+package org.example.simulator;
+
+import org.example.simulator.ParameterSweep.Algorithm;
+import org.example.simulator.ParameterSweep.Cell;
+import org.example.simulator.workflow.Workflow;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// regenerates the report set of every experiment of a manifest: for each
+// experiment (a report directory and its DAX files) the norm-makespan,
+// norm-cost, norm-energy-consumption and deadline-violation CSV files with a
+// column per DAX file and a row per algorithm, and like the per-family
+// simulators before it the per-task logs of every run under logs/
+//
+// every (DAX file, algorithm) pair runs as one task on a bounded pool, so
+// the whole set takes about as long as the slowest of them; as results come
+// in, the rows of each DAX file are appended to results.csv once all of its
+// algorithms are done, and the files of an experiment are written once all
+// of its DAX files are done
+//
+// arguments, all optional:
+//   manifest=src/main/resources/experiments.txt
+//   experiments=Montage,Sipht   (default: every experiment of the manifest)
+//   threads=8                   (default: one per core)
+//   out=src/main/resources/reports
+public class ExperimentRunner {
+
+    public static final String DEFAULT_MANIFEST = "src/main/resources/experiments.txt";
+
+    public static final String DEFAULT_REPORT_DIR = "src/main/resources/reports";
+
+    public static final String RESULTS_FILE = "results.csv";
+
+    // the experiments of a manifest file and the parameters they share
+    public static class Manifest {
+
+        private float alpha = 1.3f;
+
+        private float beta = 0.6f;
+
+        private List<Algorithm> algorithms = Arrays.asList(Algorithm.values());
+
+        // report directory -> DAX files, in the order of the manifest
+        private Map<String,List<String>> experiments = new LinkedHashMap<>();
+
+        // lines of key = value, with # comments
+        public static Manifest read(File file) throws IOException {
+            Manifest manifest = new Manifest();
+            try(BufferedReader br = new BufferedReader(new FileReader(file))){
+                String line;
+                int lineNumber = 0;
+                while((line = br.readLine()) != null){
+                    lineNumber += 1;
+                    line = line.trim();
+                    if(line.isEmpty() || line.startsWith("#")){
+                        continue;
+                    }
+                    String[] keyValue = line.split("=", 2);
+                    if(keyValue.length != 2){
+                        throw new IOException(file + ":" + lineNumber + ": expected key = value");
+                    }
+                    String key = keyValue[0].trim();
+                    List<String> values = new ArrayList<>();
+                    for(String value : keyValue[1].split(",")){
+                        if(!value.trim().isEmpty()){
+                            values.add(value.trim());
+                        }
+                    }
+                    switch(key){
+                        case "alpha":
+                            manifest.alpha = Float.parseFloat(keyValue[1].trim());
+                            break;
+                        case "beta":
+                            manifest.beta = Float.parseFloat(keyValue[1].trim());
+                            break;
+                        case "algorithms":
+                            manifest.algorithms = new ArrayList<>();
+                            for(String value : values){
+                                manifest.algorithms.add(Algorithm.of(value));
+                            }
+                            break;
+                        default:
+                            if(manifest.experiments.put(key, values) != null){
+                                throw new IOException(file + ":" + lineNumber + ": experiment " + key + " listed twice");
+                            }
+                    }
+                }
+            }
+            return manifest;
+        }
+
+        // the same parameters with only the named experiments
+        public Manifest select(List<String> names){
+            Manifest manifest = new Manifest();
+            manifest.alpha = alpha;
+            manifest.beta = beta;
+            manifest.algorithms = algorithms;
+            for(String name : names){
+                if(!experiments.containsKey(name)){
+                    throw new IllegalArgumentException("Unknown experiment " + name);
+                }
+                manifest.experiments.put(name, experiments.get(name));
+            }
+            return manifest;
+        }
+
+        public float getAlpha() {
+            return alpha;
+        }
+
+        public float getBeta() {
+            return beta;
+        }
+
+        public List<Algorithm> getAlgorithms() {
+            return algorithms;
+        }
+
+        public Map<String,List<String>> getExperiments() {
+            return experiments;
+        }
+
+    }
+
+    private Manifest manifest;
+
+    private File reportDir;
+
+    private int threads;
+
+    public ExperimentRunner(Manifest manifest, File reportDir, int threads){
+        this.manifest = manifest;
+        this.reportDir = reportDir;
+        this.threads = threads;
+    }
+
+    // to run every experiment, returning the cells of each one by DAX file
+    // and algorithm in the order of the manifest
+    public Map<String,List<Cell>> run() throws IOException, InterruptedException {
+
+        Map<String,List<String>> experiments = manifest.getExperiments();
+        List<Algorithm> algorithms = manifest.getAlgorithms();
+
+        // a DAX file listed by several experiments is still loaded and run once
+        List<String> daxFileNames = new ArrayList<>();
+        for(List<String> names : experiments.values()){
+            for(String name : names){
+                if(!daxFileNames.contains(name)){
+                    daxFileNames.add(name);
+                }
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try(BufferedWriter results = openResults()){
+
+            // every load goes on the queue before any run, so a worker that
+            // waits for a workflow only ever waits for a load already running;
+            // a DAX file runs each algorithm once, so the per-task logs of its
+            // runs are kept, as with the old per-family simulators
+            Map<String,Future<Workflow>> workflows = new HashMap<>();
+            for(String daxFileName : daxFileNames){
+                workflows.put(daxFileName, pool.submit(() -> ParameterSweep.load(daxFileName, true)));
+            }
+            CompletionService<Cell> completionService = new ExecutorCompletionService<>(pool);
+            for(String daxFileName : daxFileNames){
+                for(Algorithm algorithm : algorithms){
+                    completionService.submit(() -> run(daxFileName, workflows.get(daxFileName), algorithm));
+                }
+            }
+
+            // collect the cells as they finish
+            Map<String,List<Cell>> cellsByDax = new HashMap<>();
+            Map<String,Integer> pendingByExperiment = new LinkedHashMap<>();
+            for(Map.Entry<String,List<String>> experiment : experiments.entrySet()){
+                pendingByExperiment.put(experiment.getKey(), experiment.getValue().size());
+            }
+            for(int k = daxFileNames.size() * algorithms.size(); k > 0; k--){
+                Cell cell;
+                try {
+                    cell = completionService.take().get();
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("An experiment cell failed outside of its run", e.getCause());
+                }
+                List<Cell> cells = cellsByDax.computeIfAbsent(cell.getDaxFileName(), (name) -> new ArrayList<>());
+                cells.add(cell);
+                if(cells.size() < algorithms.size()){
+                    continue;
+                }
+
+                // every algorithm of the DAX file is done
+                cells.sort((c1, c2) -> Integer.compare(algorithms.indexOf(c1.getAlgorithm()),
+                        algorithms.indexOf(c2.getAlgorithm())));
+                ParameterSweep.normalizeEnergyConsumption(cells);
+                for(Cell done : cells){
+                    results.write(done.toCsv());
+                    results.newLine();
+                }
+                results.flush();
+                System.out.printf("%-22s done in %6d ms%n", cell.getDaxFileName(), maxElapsedMillis(cells));
+
+                for(Map.Entry<String,List<String>> experiment : experiments.entrySet()){
+                    if(experiment.getValue().contains(cell.getDaxFileName())
+                            && pendingByExperiment.merge(experiment.getKey(), -1, Integer::sum) == 0){
+                        writeReports(experiment.getKey(), experiment.getValue(), cellsByDax);
+                    }
+                }
+            }
+
+            Map<String,List<Cell>> cellsByExperiment = new LinkedHashMap<>();
+            for(Map.Entry<String,List<String>> experiment : experiments.entrySet()){
+                List<Cell> cells = new ArrayList<>();
+                for(String daxFileName : experiment.getValue()){
+                    cells.addAll(cellsByDax.get(daxFileName));
+                }
+                cellsByExperiment.put(experiment.getKey(), cells);
+            }
+            return cellsByExperiment;
+
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+    }
+
+    private Cell run(String daxFileName, Future<Workflow> workflowFuture, Algorithm algorithm) throws InterruptedException {
+        Workflow workflow;
+        try {
+            workflow = workflowFuture.get();
+        }
+        catch (ExecutionException e) {
+            Cell cell = new Cell(daxFileName, 0, algorithm, manifest.getAlpha(), manifest.getBeta());
+            cell.fail(e.getCause());
+            return cell;
+        }
+        Cell cell = new Cell(daxFileName, workflow.getTaskList().size(), algorithm, manifest.getAlpha(), manifest.getBeta());
+        if(workflow.getTaskList().isEmpty()){
+            cell.fail(new IllegalStateException("No tasks in " + daxFileName));
+        }
+        else {
+            cell.run(workflow);
+        }
+        return cell;
+    }
+
+    private BufferedWriter openResults() throws IOException {
+        if(!reportDir.isDirectory() && !reportDir.mkdirs()){
+            throw new IOException("Cannot create directory " + reportDir);
+        }
+        BufferedWriter bw = new BufferedWriter(new FileWriter(new File(reportDir, RESULTS_FILE)));
+        bw.write(ParameterSweep.CSV_HEADER);
+        bw.newLine();
+        return bw;
+    }
+
+    private static long maxElapsedMillis(List<Cell> cells){
+        long elapsedNanos = 0;
+        for(Cell cell : cells){
+            elapsedNanos = Math.max(elapsedNanos, cell.getElapsedNanos());
+        }
+        return elapsedNanos / 1000000;
+    }
+
+    // the report files of one experiment, an empty value for a failed cell
+    private void writeReports(String experiment, List<String> daxFileNames, Map<String,List<Cell>> cellsByDax)
+            throws IOException {
+        File dir = new File(reportDir, experiment);
+        if(!dir.isDirectory() && !dir.mkdirs()){
+            throw new IOException("Cannot create directory " + dir);
+        }
+        List<Cell> columns = new ArrayList<>();
+        for(String daxFileName : daxFileNames){
+            columns.addAll(cellsByDax.get(daxFileName));
+        }
+        writeReport(new File(dir, "norm-makespan.csv"), columns, Cell::getNormMakespan);
+        writeReport(new File(dir, "norm-cost.csv"), columns, Cell::getNormCost);
+        writeReport(new File(dir, "norm-energy-consumption.csv"), columns, Cell::getNormEnergyConsumption);
+        writeReport(new File(dir, "deadline-violation.csv"), columns, ExperimentRunner::deadlineViolation);
+        System.out.println("Wrote the reports of " + experiment + " to " + dir.getPath());
+    }
+
+    private interface Metric {
+        float of(Cell cell);
+    }
+
+    private void writeReport(File file, List<Cell> cells, Metric metric) throws IOException {
+        List<Algorithm> algorithms = manifest.getAlgorithms();
+        try(BufferedWriter bw = new BufferedWriter(new FileWriter(file))){
+            StringBuilder header = new StringBuilder("No. of Tasks");
+            for(int i = 0; i < cells.size(); i += algorithms.size()){
+                header.append(',').append(cells.get(i).getTaskCount());
+            }
+            bw.write(header.toString());
+            for(int a = 0; a < algorithms.size(); a++){
+                StringBuilder row = new StringBuilder(algorithms.get(a).getLabel());
+                for(int i = a; i < cells.size(); i += algorithms.size()){
+                    row.append(',');
+                    if(!cells.get(i).isFailed()){
+                        row.append(metric.of(cells.get(i)));
+                    }
+                }
+                bw.newLine();
+                bw.write(row.toString());
+            }
+        }
+    }
+
+    // in percent of the deadline, 0 if the deadline is met
+    static float deadlineViolation(Cell cell){
+        float makespan = cell.getMakespan(), deadline = cell.getDeadline();
+        return ((makespan < deadline)? 0.0f: ((makespan - deadline) / deadline)) * 100.0f;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        String manifestPath = DEFAULT_MANIFEST;
+        List<String> names = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = DEFAULT_REPORT_DIR;
+        for(String arg : args){
+            String[] keyValue = arg.split("=", 2);
+            if(keyValue.length != 2){
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            switch(keyValue[0]){
+                case "manifest":
+                    manifestPath = keyValue[1];
+                    break;
+                case "experiments":
+                    names = Arrays.asList(keyValue[1].split(","));
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(keyValue[1]);
+                    break;
+                case "out":
+                    out = keyValue[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + keyValue[0]);
+            }
+        }
+        Manifest manifest = Manifest.read(new File(manifestPath));
+        if(names != null){
+            manifest = manifest.select(names);
+        }
+
+        int daxCount = 0;
+        for(List<String> daxFileNames : manifest.getExperiments().values()){
+            daxCount += daxFileNames.size();
+        }
+        System.out.printf("Running %d experiments (%d DAX files x %d algorithms) on %d threads%n",
+                manifest.getExperiments().size(), daxCount, manifest.getAlgorithms().size(), threads);
+        long start = System.nanoTime();
+        Map<String,List<Cell>> cellsByExperiment = new ExperimentRunner(manifest, new File(out), threads).run();
+        float seconds = (System.nanoTime() - start) / 1.0e9f;
+
+        int failed = 0;
+        for(List<Cell> cells : cellsByExperiment.values()){
+            for(Cell cell : cells){
+                if(cell.isFailed()){
+                    failed += 1;
+                    System.out.println("Failed: " + cell.getDaxFileName() + " " + cell.getAlgorithm().getLabel()
+                            + ": " + cell.getError());
+                }
+            }
+        }
+        System.out.printf("%nDone in %.1f s, %d failed cells; results in %s%n",
+                seconds, failed, new File(out, RESULTS_FILE).getPath());
+
+    }
+
+}
@@ -0,0 +1,363 @@
+package org.example.simulator;
+
+import org.example.simulator.ParameterSweep.Algorithm;
+import org.example.simulator.workflow.ExecutionSimulator;
+import org.example.simulator.workflow.ExecutionTrace;
+import org.example.simulator.workflow.Schedule;
+import org.example.simulator.workflow.Workflow;
+import org.example.simulator.workflow.WorkflowGraph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// runs one fixed ESDWB or Modified ESDWB schedule many times with task
+// lengths and data sizes drawn around the point estimates of the DAX file,
+// to see how makespan, cost and energy consumption spread and how often the
+// deadline is missed when runtimes vary
+//
+// the replicas are split over a pool with a thread per core; each thread
+// replays the schedule with its own simulator, buffers and trace, which
+// every replica overwrites, and replica r draws from its own random stream
+// seeded by (seed, r), so the results do not depend on the number of threads
+//
+// arguments, all optional:
+//   dax=Montage_1000.xml
+//   algorithm=ESDWB       (or "Modified ESDWB")
+//   alpha=1.3 beta=0.6
+//   replicas=10000 seed=1
+//   lengths=normal:0.2    none, uniform:s, normal:s or lognormal:s,
+//   data=normal:0.2       with s the spread relative to the estimate
+//   threads=8             (default: one per core)
+//   out=replicas.csv      (default: no file)
+public class MonteCarloSimulation {
+
+    // how a value varies around its estimate
+    public static class Distribution {
+
+        public enum Kind { NONE, UNIFORM, NORMAL, LOGNORMAL }
+
+        private Kind kind;
+
+        // relative to the estimate: the half width of the uniform
+        // distribution, the standard deviation of the normal one and
+        // the sigma of the log-normal one
+        private float spread;
+
+        public Distribution(Kind kind, float spread){
+            this.kind = kind;
+            this.spread = spread;
+        }
+
+        // from kind:spread, or just none
+        public static Distribution parse(String spec){
+            String[] parts = spec.trim().split(":");
+            Kind kind = Kind.valueOf(parts[0].toUpperCase());
+            if(kind == Kind.NONE){
+                return new Distribution(kind, 0.0f);
+            }
+            if(parts.length != 2){
+                throw new IllegalArgumentException("Expected kind:spread, got " + spec);
+            }
+            float spread = Float.parseFloat(parts[1]);
+            if(spread < 0.0f){
+                throw new IllegalArgumentException("Negative spread in " + spec);
+            }
+            return new Distribution(kind, spread);
+        }
+
+        // a value drawn around the estimate, never negative; the uniform and
+        // normal ones have the estimate as their mean, as does the log-normal
+        // one, whose median is below it
+        public float sample(float estimate, SplittableRandom random){
+            switch(kind){
+                case UNIFORM:
+                    return estimate * Math.max(0.0f, 1.0f + spread * (float) (2.0 * random.nextDouble() - 1.0));
+                case NORMAL:
+                    return estimate * Math.max(0.0f, 1.0f + spread * (float) gaussian(random));
+                case LOGNORMAL:
+                    return estimate * (float) Math.exp(spread * gaussian(random) - 0.5 * spread * spread);
+                default:
+                    return estimate;
+            }
+        }
+
+        // Box-Muller, one value per call
+        private static double gaussian(SplittableRandom random){
+            double u = 1.0 - random.nextDouble();
+            return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * random.nextDouble());
+        }
+
+        @Override
+        public String toString() {
+            return (kind == Kind.NONE)? "none": kind.name().toLowerCase() + ":" + spread;
+        }
+
+    }
+
+    private Workflow workflow;
+
+    private Schedule schedule;
+
+    private float deadline;
+
+    private float budget;
+
+    private Distribution lengthDistribution;
+
+    private Distribution dataSizeDistribution;
+
+    private long seed;
+
+    private int threads;
+
+    // indexed by replica
+    private float[] makespans;
+
+    private float[] costs;
+
+    private float[] energyConsumptions;
+
+    public MonteCarloSimulation(Workflow workflow, Schedule schedule, float deadline, float budget,
+                                Distribution lengthDistribution, Distribution dataSizeDistribution,
+                                long seed, int threads){
+        this.workflow = workflow;
+        this.schedule = schedule;
+        this.deadline = deadline;
+        this.budget = budget;
+        this.lengthDistribution = lengthDistribution;
+        this.dataSizeDistribution = dataSizeDistribution;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    // to run the given number of replicas
+    public void run(int replicas) throws InterruptedException {
+
+        this.makespans = new float[replicas];
+        this.costs = new float[replicas];
+        this.energyConsumptions = new float[replicas];
+
+        int chunks = Math.max(1, Math.min(threads, replicas));
+        ExecutorService pool = Executors.newFixedThreadPool(chunks);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int c = 0; c < chunks; c++){
+                int from = (int) ((long) replicas * c / chunks);
+                int to = (int) ((long) replicas * (c + 1) / chunks);
+                ExecutionSimulator simulator = new ExecutionSimulator(workflow, schedule);
+                futures.add(pool.submit(() -> runReplicas(simulator, from, to)));
+            }
+            for(Future<?> future : futures){
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("A replica failed", e.getCause());
+                }
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+    }
+
+    private void runReplicas(ExecutionSimulator simulator, int from, int to){
+        WorkflowGraph graph = workflow.getGraph();
+        float[] estimatedDataSizes = graph.getPredecessorDataSizes();
+        float[] lengths = new float[graph.size()];
+        float[] dataSizes = new float[estimatedDataSizes.length];
+        ExecutionTrace trace = null;
+        for(int r = from; r < to; r++){
+            SplittableRandom random = new SplittableRandom(replicaSeed(seed, r));
+            for(int i = 0; i < lengths.length; i++){
+                lengths[i] = lengthDistribution.sample(graph.getLength(i), random);
+            }
+            for(int e = 0; e < dataSizes.length; e++){
+                dataSizes[e] = dataSizeDistribution.sample(estimatedDataSizes[e], random);
+            }
+            trace = simulator.replay(lengths, dataSizes, trace);
+            makespans[r] = trace.getMakespan();
+            costs[r] = trace.getCost();
+            energyConsumptions[r] = trace.getEnergyConsumption();
+        }
+    }
+
+    // the seed of the stream of a replica: (seed, r) through two rounds of the
+    // splitmix64 finalizer, so no two (seed, r) pairs give shifted copies of
+    // one stream, as any seed linear in seed and r would
+    static long replicaSeed(long seed, int r){
+        return mix64(mix64(seed) + r);
+    }
+
+    private static long mix64(long z){
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // the value below which the given share of the values lie, by nearest rank
+    static float percentile(float[] sortedValues, float share){
+        int rank = (int) Math.ceil(share * sortedValues.length);
+        return sortedValues[Math.min(Math.max(rank, 1), sortedValues.length) - 1];
+    }
+
+    static float mean(float[] values){
+        double sum = 0.0;
+        for(float value : values){
+            sum += value;
+        }
+        return (float) (sum / values.length);
+    }
+
+    // share of the replicas finishing after the deadline
+    public float deadlineMissProbability(){
+        int missed = 0;
+        for(float makespan : makespans){
+            missed += (makespan > deadline)? 1: 0;
+        }
+        return (float) missed / makespans.length;
+    }
+
+    // share of the replicas costing more than the budget
+    public float budgetOverrunProbability(){
+        int overrun = 0;
+        for(float cost : costs){
+            overrun += (cost > budget)? 1: 0;
+        }
+        return (float) overrun / costs.length;
+    }
+
+    public void printSummary(){
+        System.out.printf("%-12s %14s %14s %14s %14s %14s %14s%n",
+                "", "Mean", "P5", "P50", "P95", "P99", "Max");
+        printRow("Makespan", makespans);
+        printRow("Cost", costs);
+        printRow("Energy", energyConsumptions);
+        System.out.printf("%nDeadline %.4f missed in %.2f%% of %d replicas%n",
+                deadline, 100.0f * deadlineMissProbability(), makespans.length);
+        System.out.printf("Budget %.6f overrun in %.2f%% of %d replicas%n",
+                budget, 100.0f * budgetOverrunProbability(), costs.length);
+    }
+
+    private static void printRow(String label, float[] values){
+        float[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        System.out.printf("%-12s %14.6g %14.6g %14.6g %14.6g %14.6g %14.6g%n", label, mean(values),
+                percentile(sorted, 0.05f), percentile(sorted, 0.50f), percentile(sorted, 0.95f),
+                percentile(sorted, 0.99f), sorted[sorted.length - 1]);
+    }
+
+    public void writeReplicas(File file) throws IOException {
+        try(BufferedWriter bw = new BufferedWriter(new FileWriter(file))){
+            bw.write("Replica,Makespan,Cost,Energy consumption,Deadline met,Budget met");
+            for(int r = 0; r < makespans.length; r++){
+                bw.newLine();
+                bw.write(r + "," + makespans[r] + "," + costs[r] + "," + energyConsumptions[r] + ","
+                        + (makespans[r] <= deadline) + "," + (costs[r] <= budget));
+            }
+        }
+    }
+
+    public float[] getMakespans() {
+        return makespans;
+    }
+
+    public float[] getCosts() {
+        return costs;
+    }
+
+    public float[] getEnergyConsumptions() {
+        return energyConsumptions;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        // simulation params
+        String daxFileName = "Montage_1000.xml";
+        Algorithm algorithm = Algorithm.ESDWB;
+        float alpha = 1.3f, beta = 0.6f;
+        int replicas = 10000;
+        long seed = 1;
+        Distribution lengthDistribution = Distribution.parse("normal:0.2");
+        Distribution dataSizeDistribution = Distribution.parse("normal:0.2");
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = null;
+        for(String arg : args){
+            String[] keyValue = arg.split("=", 2);
+            if(keyValue.length != 2){
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            switch(keyValue[0]){
+                case "dax":
+                    daxFileName = keyValue[1];
+                    break;
+                case "algorithm":
+                    algorithm = Algorithm.of(keyValue[1]);
+                    break;
+                case "alpha":
+                    alpha = Float.parseFloat(keyValue[1]);
+                    break;
+                case "beta":
+                    beta = Float.parseFloat(keyValue[1]);
+                    break;
+                case "replicas":
+                    replicas = Integer.parseInt(keyValue[1]);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(keyValue[1]);
+                    break;
+                case "lengths":
+                    lengthDistribution = Distribution.parse(keyValue[1]);
+                    break;
+                case "data":
+                    dataSizeDistribution = Distribution.parse(keyValue[1]);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(keyValue[1]);
+                    break;
+                case "out":
+                    out = keyValue[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + keyValue[0]);
+            }
+        }
+
+        Workflow workflow = ParameterSweep.load(daxFileName);
+        Schedule schedule = algorithm.schedule(workflow, alpha, beta);
+        float deadline = workflow.deadline(alpha);
+        float budget = workflow.budget(beta);
+        System.out.printf("%s schedule of %s (alpha %s, beta %s): makespan %.4f, cost %.6f, energy %.2f%n",
+                algorithm.getLabel(), daxFileName, alpha, beta, workflow.actualMakespan(schedule),
+                workflow.cost(schedule), workflow.energyConsumption(schedule));
+        System.out.printf("Running %d replicas, lengths %s, data sizes %s, seed %d, on %d threads%n%n",
+                replicas, lengthDistribution, dataSizeDistribution, seed, threads);
+
+        MonteCarloSimulation simulation = new MonteCarloSimulation(workflow, schedule, deadline, budget,
+                lengthDistribution, dataSizeDistribution, seed, threads);
+        long start = System.nanoTime();
+        simulation.run(replicas);
+        float seconds = (System.nanoTime() - start) / 1.0e9f;
+
+        simulation.printSummary();
+        System.out.printf("%n%d replicas in %.2f s%n", replicas, seconds);
+        if(out != null){
+            simulation.writeReplicas(new File(out));
+            System.out.println("Replicas written to " + out);
+        }
+
+    }
+
+}
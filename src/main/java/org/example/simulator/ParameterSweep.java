@@ -0,0 +1,474 @@
+package org.example.simulator;
+
+import org.example.simulator.workflow.Placement;
+import org.example.simulator.workflow.Schedule;
+import org.example.simulator.workflow.Scheduler;
+import org.example.simulator.workflow.Workflow;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// runs ESDWB and Modified ESDWB over a grid of alpha and beta values for a set
+// of DAX files, as one task per (workflow, alpha, beta, algorithm) cell on a
+// pool with a thread per core; each DAX file is parsed once, and its frozen
+// workflow with the timings every cell needs is shared without locks by all of
+// its cells; the results of all cells go to one CSV table
+//
+// arguments, all optional:
+//   alpha=1.0:3.0:0.1     from:to:step, or a comma separated list
+//   beta=0.1:1.0:0.1
+//   dax=CyberShake_30.xml,Montage_25.xml   (default: every file in the DAX directory)
+//   threads=8             (default: one per core)
+//   out=src/main/resources/reports/sweep.csv
+public class ParameterSweep {
+
+    public static final String DAX_PATH = "src/main/resources/dax/";
+
+    public static final String DEFAULT_REPORT = "src/main/resources/reports/sweep.csv";
+
+    public static final String CSV_HEADER = "Workflow,No. of Tasks,Algorithm,Alpha,Beta,Deadline,Budget,Makespan,Cost,"
+            + "Energy consumption,Norm. makespan,Norm. cost,Norm. energy consumption,Deadline met,Budget met,Time (ms),Error";
+
+    public enum Algorithm {
+
+        ESDWB("ESDWB", Workflow.ESDWB),
+        MODIFIED_ESDWB("Modified ESDWB", Workflow.MODIFIED_ESDWB);
+
+        private String label;
+
+        private Scheduler scheduler;
+
+        Algorithm(String label, Scheduler scheduler){
+            this.label = label;
+            this.scheduler = scheduler;
+        }
+
+        // the algorithm with the label, as in the reports
+        public static Algorithm of(String label){
+            for(Algorithm algorithm : values()){
+                if(algorithm.label.equalsIgnoreCase(label.trim())){
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("Unknown algorithm " + label);
+        }
+
+        public Schedule schedule(Workflow workflow, float alpha, float beta){
+            return scheduler.schedule(workflow, alpha, beta, Placement.APPEND);
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Scheduler getScheduler() {
+            return scheduler;
+        }
+
+    }
+
+    // the outcome of one cell of the grid
+    public static class Cell {
+
+        private String daxFileName;
+
+        private int taskCount;
+
+        private Algorithm algorithm;
+
+        private float alpha;
+
+        private float beta;
+
+        private float deadline;
+
+        private float budget;
+
+        private float makespan;
+
+        private float cost;
+
+        private float energyConsumption;
+
+        // energy consumption over the lowest one of the algorithms in the same
+        // (workflow, alpha, beta) cell, as in the reports of the simulators
+        private float normEnergyConsumption;
+
+        private long elapsedNanos;
+
+        // why the cell failed, or null
+        private String error;
+
+        Cell(String daxFileName, int taskCount, Algorithm algorithm, float alpha, float beta){
+            this.daxFileName = daxFileName;
+            this.taskCount = taskCount;
+            this.algorithm = algorithm;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        void run(Workflow workflow){
+            long start = System.nanoTime();
+            try {
+                this.deadline = workflow.deadline(alpha);
+                this.budget = workflow.budget(beta);
+                Schedule schedule = algorithm.schedule(workflow, alpha, beta);
+                this.makespan = workflow.actualMakespan(schedule);
+                this.cost = workflow.cost(schedule);
+                this.energyConsumption = workflow.energyConsumption(schedule);
+            }
+            catch (RuntimeException e) {
+                this.error = e.toString();
+            }
+            this.elapsedNanos = System.nanoTime() - start;
+        }
+
+        // for a cell whose workflow could not be loaded
+        void fail(Throwable cause){
+            this.error = cause.toString();
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+
+        public boolean meetsDeadline() {
+            return !isFailed() && makespan <= deadline;
+        }
+
+        public boolean meetsBudget() {
+            return !isFailed() && cost <= budget;
+        }
+
+        String toCsv(){
+            String head = daxFileName + "," + taskCount + "," + algorithm.getLabel() + "," + alpha + "," + beta;
+            if(isFailed()){
+                return head + ",,,,,,,,,,," + (elapsedNanos / 1000000) + "," + error.replace(',', ';');
+            }
+            return head + "," + deadline + "," + budget + "," + makespan + "," + cost + "," + energyConsumption + ","
+                    + (makespan / deadline) + "," + (cost / budget) + "," + normEnergyConsumption + ","
+                    + meetsDeadline() + "," + meetsBudget() + "," + (elapsedNanos / 1000000) + ",";
+        }
+
+        public String getDaxFileName() {
+            return daxFileName;
+        }
+
+        public int getTaskCount() {
+            return taskCount;
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public float getAlpha() {
+            return alpha;
+        }
+
+        public float getBeta() {
+            return beta;
+        }
+
+        public float getDeadline() {
+            return deadline;
+        }
+
+        public float getBudget() {
+            return budget;
+        }
+
+        public float getMakespan() {
+            return makespan;
+        }
+
+        public float getCost() {
+            return cost;
+        }
+
+        public float getEnergyConsumption() {
+            return energyConsumption;
+        }
+
+        public float getNormMakespan() {
+            return makespan / deadline;
+        }
+
+        public float getNormCost() {
+            return cost / budget;
+        }
+
+        public float getNormEnergyConsumption() {
+            return normEnergyConsumption;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+    }
+
+    private List<String> daxFileNames;
+
+    private float[] alphas;
+
+    private float[] betas;
+
+    private int threads;
+
+    public ParameterSweep(List<String> daxFileNames, float[] alphas, float[] betas, int threads){
+        this.daxFileNames = daxFileNames;
+        this.alphas = alphas;
+        this.betas = betas;
+        this.threads = threads;
+    }
+
+    // to run every cell of the grid, returning them in the order of the DAX files,
+    // alphas, betas and algorithms whatever order they finish in
+    public List<Cell> run() throws InterruptedException {
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+
+            // first: parse (or map the cache of) every DAX file at once
+            List<Future<Workflow>> workflows = new ArrayList<>();
+            for(String daxFileName : daxFileNames){
+                workflows.add(pool.submit(() -> load(daxFileName)));
+            }
+
+            // second: fan the cells of each workflow out as soon as it is loaded
+            List<Future<Cell>> cells = new ArrayList<>();
+            for(int i = 0; i < daxFileNames.size(); i++){
+                String daxFileName = daxFileNames.get(i);
+                Workflow workflow;
+                try {
+                    workflow = workflows.get(i).get();
+                }
+                catch (ExecutionException e) {
+                    System.out.println("Skipping " + daxFileName + ": " + e.getCause());
+                    continue;
+                }
+                if(workflow.getTaskList().isEmpty()){
+                    System.out.println("Skipping " + daxFileName + ": no tasks");
+                    continue;
+                }
+                for(float alpha : alphas){
+                    for(float beta : betas){
+                        for(Algorithm algorithm : Algorithm.values()){
+                            Cell cell = new Cell(daxFileName, workflow.getTaskList().size(), algorithm, alpha, beta);
+                            cells.add(pool.submit(() -> {
+                                cell.run(workflow);
+                                return cell;
+                            }));
+                        }
+                    }
+                }
+            }
+
+            // third: collect them in order
+            List<Cell> results = new ArrayList<>(cells.size());
+            for(Future<Cell> cell : cells){
+                try {
+                    results.add(cell.get());
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("A sweep cell failed outside of its run", e.getCause());
+                }
+            }
+            normalizeEnergyConsumption(results);
+            return results;
+
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+    }
+
+    // a frozen workflow, with everything its cells share computed before they run
+    static Workflow load(String daxFileName){
+        return load(daxFileName, false);
+    }
+
+    // the same, writing the per-task CSV logs of its runs if logging is set
+    static Workflow load(String daxFileName, boolean logging){
+        Workflow workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.setLogging(logging);
+        workflow.createCached(DAX_PATH + daxFileName);
+        if(!workflow.getTaskList().isEmpty()){
+            workflow.freeze();
+        }
+        return workflow;
+    }
+
+    static void normalizeEnergyConsumption(List<Cell> results){
+        Map<String,Float> minimumEnergyConsumption = new LinkedHashMap<>();
+        for(Cell cell : results){
+            if(!cell.isFailed()){
+                minimumEnergyConsumption.merge(cell.daxFileName + "/" + cell.alpha + "/" + cell.beta,
+                        cell.energyConsumption, Math::min);
+            }
+        }
+        for(Cell cell : results){
+            if(!cell.isFailed()){
+                cell.normEnergyConsumption = cell.energyConsumption
+                        / minimumEnergyConsumption.get(cell.daxFileName + "/" + cell.alpha + "/" + cell.beta);
+            }
+        }
+    }
+
+    public static void writeReport(List<Cell> results, File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if(dir != null && !dir.isDirectory() && !dir.mkdirs()){
+            throw new IOException("Cannot create directory " + dir);
+        }
+        try(BufferedWriter bw = new BufferedWriter(new FileWriter(file))){
+            bw.write(CSV_HEADER);
+            bw.newLine();
+            for(Cell cell : results){
+                bw.write(cell.toCsv());
+                bw.newLine();
+            }
+        }
+    }
+
+    // per workflow and algorithm: mean normalized makespan and cost,
+    // and the share of cells meeting the deadline and the budget
+    public static void printSummary(List<Cell> results){
+        Map<String,List<Cell>> groups = new LinkedHashMap<>();
+        for(Cell cell : results){
+            groups.computeIfAbsent(cell.daxFileName + "\t" + cell.algorithm.getLabel(), (k) -> new ArrayList<>()).add(cell);
+        }
+        System.out.printf("%-22s %-16s %6s %10s %10s %10s %10s %7s%n",
+                "Workflow", "Algorithm", "Cells", "Makespan", "Cost", "Deadline", "Budget", "Failed");
+        for(Map.Entry<String,List<Cell>> group : groups.entrySet()){
+            String[] key = group.getKey().split("\t");
+            List<Cell> cells = group.getValue();
+            int done = 0, deadlineMet = 0, budgetMet = 0;
+            float normMakespan = 0.0f, normCost = 0.0f;
+            for(Cell cell : cells){
+                if(cell.isFailed()){
+                    continue;
+                }
+                done += 1;
+                normMakespan += cell.getNormMakespan();
+                normCost += cell.getNormCost();
+                deadlineMet += cell.meetsDeadline()? 1: 0;
+                budgetMet += cell.meetsBudget()? 1: 0;
+            }
+            System.out.printf("%-22s %-16s %6d %10.4f %10.4f %9.1f%% %9.1f%% %7d%n", key[0], key[1], cells.size(),
+                    normMakespan / Math.max(done, 1), normCost / Math.max(done, 1),
+                    100.0f * deadlineMet / Math.max(done, 1), 100.0f * budgetMet / Math.max(done, 1),
+                    cells.size() - done);
+        }
+    }
+
+    // a grid of values given as from:to:step or as a comma separated list
+    static float[] parseGrid(String spec){
+        String[] range = spec.split(":");
+        if(range.length == 3){
+            double from = Double.parseDouble(range[0]);
+            double to = Double.parseDouble(range[1]);
+            double step = Double.parseDouble(range[2]);
+            if(!(step > 0.0) || to < from){
+                throw new IllegalArgumentException("Bad grid " + spec);
+            }
+            int count = (int) Math.round((to - from) / step) + 1;
+            float[] values = new float[count];
+            for(int k = 0; k < count; k++){
+                // rounded so that e.g. 1.0 + 3 * 0.1 is 1.3f, as in the simulators
+                values[k] = (float) (Math.round((from + k * step) * 1.0e6) / 1.0e6);
+            }
+            return values;
+        }
+        String[] list = spec.split(",");
+        float[] values = new float[list.length];
+        for(int k = 0; k < list.length; k++){
+            values[k] = Float.parseFloat(list[k].trim());
+        }
+        return values;
+    }
+
+    // every DAX file of the directory, by workflow name and then number of tasks
+    static List<String> allDaxFileNames(){
+        String[] names = new File(DAX_PATH).list((dir, name) -> name.endsWith(".xml"));
+        List<String> daxFileNames = new ArrayList<>(Arrays.asList((names == null)? new String[0]: names));
+        daxFileNames.sort(Comparator.comparing((String name) -> name.split("_")[0])
+                .thenComparingInt((name) -> {
+                    String digits = name.replaceAll("\\D", "");
+                    return digits.isEmpty()? 0: Integer.parseInt(digits);
+                }));
+        return daxFileNames;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        // simulation params
+        String alphaGrid = "1.0:3.0:0.1", betaGrid = "0.1:1.0:0.1";
+        List<String> daxFileNames = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String report = DEFAULT_REPORT;
+        for(String arg : args){
+            String[] keyValue = arg.split("=", 2);
+            if(keyValue.length != 2){
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            switch(keyValue[0]){
+                case "alpha":
+                    alphaGrid = keyValue[1];
+                    break;
+                case "beta":
+                    betaGrid = keyValue[1];
+                    break;
+                case "dax":
+                    daxFileNames = Arrays.asList(keyValue[1].split(","));
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(keyValue[1]);
+                    break;
+                case "out":
+                    report = keyValue[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + keyValue[0]);
+            }
+        }
+        if(daxFileNames == null){
+            daxFileNames = allDaxFileNames();
+        }
+        float[] alphas = parseGrid(alphaGrid);
+        float[] betas = parseGrid(betaGrid);
+
+        System.out.printf("Sweeping %d DAX files x %d alphas x %d betas x %d algorithms on %d threads%n",
+                daxFileNames.size(), alphas.length, betas.length, Algorithm.values().length, threads);
+        long start = System.nanoTime();
+        List<Cell> results = new ParameterSweep(daxFileNames, alphas, betas, threads).run();
+        float seconds = (System.nanoTime() - start) / 1.0e9f;
+
+        File reportFile = new File(report);
+        writeReport(results, reportFile);
+        System.out.println();
+        printSummary(results);
+        System.out.printf("%n%d cells in %.1f s (%.1f cells/s), written to %s%n",
+                results.size(), seconds, results.size() / seconds, reportFile.getPath());
+
+    }
+
+}
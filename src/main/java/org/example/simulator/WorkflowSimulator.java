@@ -17,15 +17,16 @@ public class WorkflowSimulator {
 
     // "CyberShake_100.xml", "Epigenomics_100.xml", "Inspiral_100.xml", "Montage_100.xml", "Sipht_100.xml"
 
-    // "CyberShake_1000.xml", "Epigenomics_997.xml", "Inspiral_1000.xml", "Montage_1000.xml", "Sipht_1000.xml"
+    // "CyberShake_1000.xml", "Epigenomics_997.xml", "Inspiral_1000.xml", "Montage_1000.xml"
+    // (there is no Sipht_1000.xml in dax/, so experiments.txt leaves it out too)
 
     public static void main(String[] args) {
 
         String daxPath = "src/main/resources/dax/";
-        String daxFileName = "Sipht_1000.xml";
+        String daxFileName = "Sipht_100.xml";
 
         Workflow workflow = new Workflow();
-        workflow.create(daxPath+daxFileName);
+        workflow.createCached(daxPath+daxFileName);
 
         float alpha = 1.3f, beta = 0.6f;
         float deadline = workflow.deadline(alpha);
@@ -34,15 +34,15 @@ public class Vm {
     }
 
     public void initializeVoltageLevel(){
-        this.voltageLevel = type.getVoltageLevelsInVolt().stream().max(Float::compareTo).get();
+        this.voltageLevel = type.getMaximumVoltageLevel();
     }
 
     public void initializeFrequency(){
-        this.frequency = type.getFrequenciesInGHz().stream().max(Float::compareTo).get();
+        this.frequency = type.getMaximumFrequency();
     }
 
     public void initializeProcessingSpeed(){
-        this.processingSpeed = type.getProcessingSpeedsInMips().stream().max(Float::compareTo).get();
+        this.processingSpeed = type.getMaximumProcessingSpeed();
     }
 
     // getters, setters and toString
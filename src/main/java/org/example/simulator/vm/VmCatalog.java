@@ -0,0 +1,292 @@
+package org.example.simulator.vm;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// the VM types a data center offers, compiled into arrays sorted by maximum
+// processing speed and by cost efficiency, so schedulers can pick VM types
+// by binary search instead of filtering and sorting the type list per task
+public class VmCatalog {
+
+    // classpath resource of the default catalog, or a file path given by -Dvm.catalog=...
+    public static final String DEFAULT_RESOURCE = "/vm-types.csv";
+
+    public static final String CATALOG_PROPERTY = "vm.catalog";
+
+    private List<VmType> vmTypeList;
+
+    // types in ascending order of maximum processing speed, ties in list order
+    private VmType[] bySpeed;
+
+    private float[] speeds;
+
+    // types in descending order of maximum processing speed, ties in list order
+    private VmType[] bySpeedDescending;
+
+    // types in ascending order of computing cost per MI, ties in list order,
+    // with the fastest and the slowest type among the first k+1 of them,
+    // ties going to the type that comes first in the list
+    private VmType[] byCostEfficiency;
+
+    private int[] fastestUpTo;
+
+    private int[] slowestUpTo;
+
+    private VmType fastestVmType;
+
+    private VmType cheapestVmType;
+
+    private VmType costliestVmType;
+
+    // the types are frozen: a catalog, and every run drawing on it, relies on them not changing
+    public VmCatalog(List<VmType> vmTypeList){
+        for(VmType tau : vmTypeList){
+            tau.freeze();
+        }
+        this.vmTypeList = Collections.unmodifiableList(new ArrayList<>(vmTypeList));
+        int n = vmTypeList.size();
+
+        this.bySpeed = vmTypeList.toArray(new VmType[0]);
+        Arrays.sort(bySpeed, Comparator.comparingDouble(VmType::getMaximumProcessingSpeed));
+        this.speeds = new float[n];
+        for(int k = 0; k < n; k++){
+            speeds[k] = bySpeed[k].getMaximumProcessingSpeed();
+        }
+        this.bySpeedDescending = vmTypeList.toArray(new VmType[0]);
+        Arrays.sort(bySpeedDescending, Comparator.comparingDouble(VmType::getMaximumProcessingSpeed).reversed());
+
+        // the cost-efficiency frontier
+        int[] positions = new int[n];
+        this.byCostEfficiency = vmTypeList.toArray(new VmType[0]);
+        Arrays.sort(byCostEfficiency, Comparator.comparingDouble(VmType::ratioOfComputingCostToMaxProcessingSpeed));
+        for(int k = 0; k < n; k++){
+            while(vmTypeList.get(positions[k]) != byCostEfficiency[k]){
+                positions[k] += 1;
+            }
+        }
+        this.fastestUpTo = new int[n];
+        this.slowestUpTo = new int[n];
+        for(int k = 0; k < n; k++){
+            int fastest = (k == 0)? k: fastestUpTo[k - 1];
+            int slowest = (k == 0)? k: slowestUpTo[k - 1];
+            float ps = byCostEfficiency[k].getMaximumProcessingSpeed();
+            float fastestPs = byCostEfficiency[fastest].getMaximumProcessingSpeed();
+            float slowestPs = byCostEfficiency[slowest].getMaximumProcessingSpeed();
+            if(ps > fastestPs || (ps == fastestPs && positions[k] < positions[fastest])){
+                fastest = k;
+            }
+            if(ps < slowestPs || (ps == slowestPs && positions[k] < positions[slowest])){
+                slowest = k;
+            }
+            fastestUpTo[k] = fastest;
+            slowestUpTo[k] = slowest;
+        }
+
+        // the reference types of the deadline and the budget,
+        // the first one in the list on ties
+        for(VmType tau : vmTypeList){
+            if(fastestVmType == null || tau.getMaximumProcessingSpeed() > fastestVmType.getMaximumProcessingSpeed()){
+                fastestVmType = tau;
+            }
+            if(cheapestVmType == null || tau.ratioOfComputingCostToMaxProcessingSpeed() < cheapestVmType.ratioOfComputingCostToMaxProcessingSpeed()){
+                cheapestVmType = tau;
+            }
+            if(costliestVmType == null || tau.ratioOfComputingCostToMaxProcessingSpeed() > costliestVmType.ratioOfComputingCostToMaxProcessingSpeed()){
+                costliestVmType = tau;
+            }
+        }
+    }
+
+    // the catalog of -Dvm.catalog if set, otherwise the bundled one; read once,
+    // when first asked for, and shared by every data center without locking
+    public static VmCatalog getDefault(){
+        return DefaultCatalog.INSTANCE;
+    }
+
+    private static class DefaultCatalog {
+
+        private static final VmCatalog INSTANCE = loadDefault();
+
+    }
+
+    private static VmCatalog loadDefault(){
+        String path = System.getProperty(CATALOG_PROPERTY);
+        try(InputStream in = (path != null)? new FileInputStream(path)
+                : VmCatalog.class.getResourceAsStream(DEFAULT_RESOURCE)){
+            if(in == null){
+                throw new IllegalStateException("VM catalog " + DEFAULT_RESOURCE + " is not on the classpath");
+            }
+            return load(in);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot read VM catalog " + ((path != null)? path: DEFAULT_RESOURCE), e);
+        }
+    }
+
+    // to read a catalog with one VM type per line:
+    // cost per hour (USD), voltage levels (V), frequencies (GHz)
+    // with the levels space separated; '#' starts a comment and
+    // the id of a type is its position among the types
+    public static VmCatalog load(InputStream in) throws IOException {
+        List<VmType> vmTypeList = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while((line = reader.readLine()) != null){
+            lineNumber += 1;
+            int comment = line.indexOf('#');
+            if(comment >= 0){
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if(line.isEmpty()){
+                continue;
+            }
+            String[] columns = line.split(",");
+            if(columns.length != 3){
+                throw new IOException("Line " + lineNumber + " of the VM catalog does not have 3 columns");
+            }
+            try {
+                float costPerHour = Float.parseFloat(columns[0].trim());
+                List<Float> voltageLevels = parseLevels(columns[1]);
+                List<Float> frequencies = parseLevels(columns[2]);
+                if(voltageLevels.isEmpty() || voltageLevels.size() != frequencies.size()){
+                    throw new IOException("Line " + lineNumber + " of the VM catalog has unpaired DVFS levels");
+                }
+                vmTypeList.add(new VmType(vmTypeList.size(), costPerHour, voltageLevels, frequencies));
+            }
+            catch (NumberFormatException e) {
+                throw new IOException("Line " + lineNumber + " of the VM catalog: " + e.getMessage(), e);
+            }
+        }
+        if(vmTypeList.isEmpty()){
+            throw new IOException("VM catalog has no VM types");
+        }
+        return new VmCatalog(vmTypeList);
+    }
+
+    private static List<Float> parseLevels(String column){
+        List<Float> levels = new ArrayList<>();
+        for(String level : column.trim().split("\\s+")){
+            if(!level.isEmpty()){
+                levels.add(Float.parseFloat(level));
+            }
+        }
+        return levels;
+    }
+
+    // number of types whose maximum processing speed is at least the given speed
+    public int countAtLeast(float processingSpeed){
+        int lo = 0, hi = speeds.length;
+        while(lo < hi){
+            int mid = (lo + hi) >>> 1;
+            if(speeds[mid] >= processingSpeed){
+                hi = mid;
+            }
+            else {
+                lo = mid + 1;
+            }
+        }
+        return speeds.length - lo;
+    }
+
+    // k-th type in ascending order of maximum processing speed
+    public VmType getBySpeed(int k){
+        return bySpeed[k];
+    }
+
+    // k-th type in descending order of maximum processing speed
+    public VmType getBySpeedDescending(int k){
+        return bySpeedDescending[k];
+    }
+
+    // the fastest type that runs a task of the given length within the budget,
+    // or null if there is none
+    public VmType fastestWithinBudget(float length, float budget){
+        int count = countWithinBudget(length, budget);
+        if(count < 0){
+            return scanWithinBudget(length, budget, true);
+        }
+        return (count == 0)? null: byCostEfficiency[fastestUpTo[count - 1]];
+    }
+
+    // the slowest type that runs a task of the given length within the budget,
+    // or null if there is none
+    public VmType slowestWithinBudget(float length, float budget){
+        int count = countWithinBudget(length, budget);
+        if(count < 0){
+            return scanWithinBudget(length, budget, false);
+        }
+        return (count == 0)? null: byCostEfficiency[slowestUpTo[count - 1]];
+    }
+
+    // number of leading types in cost-efficiency order that run a task of the
+    // given length within the budget; -1 if the length is not positive, since
+    // then the cheaper types per MI are not the cheaper ones for the task
+    private int countWithinBudget(float length, float budget){
+        if(!(length > 0.0f)){
+            return -1;
+        }
+        int lo = 0, hi = byCostEfficiency.length;
+        while(lo < hi){
+            int mid = (lo + hi) >>> 1;
+            if(isWithinBudget(byCostEfficiency[mid], length, budget)){
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private VmType scanWithinBudget(float length, float budget, boolean fastest){
+        VmType found = null;
+        for(VmType tau : vmTypeList){
+            if(!isWithinBudget(tau, length, budget)){
+                continue;
+            }
+            if(found == null
+                    || (fastest && tau.getMaximumProcessingSpeed() > found.getMaximumProcessingSpeed())
+                    || (!fastest && tau.getMaximumProcessingSpeed() < found.getMaximumProcessingSpeed())){
+                found = tau;
+            }
+        }
+        return found;
+    }
+
+    // cost of the task on a fresh VM of the type, without rounding up its execution time
+    private static boolean isWithinBudget(VmType tau, float length, float budget){
+        return (length / tau.getMaximumProcessingSpeed()) * tau.getCostPerSecond() <= budget;
+    }
+
+    public VmType getFastestVmType() {
+        return fastestVmType;
+    }
+
+    public VmType getCheapestVmType() {
+        return cheapestVmType;
+    }
+
+    public VmType getCostliestVmType() {
+        return costliestVmType;
+    }
+
+    public List<VmType> getVmTypeList() {
+        return vmTypeList;
+    }
+
+    public int size() {
+        return vmTypeList.size();
+    }
+
+}
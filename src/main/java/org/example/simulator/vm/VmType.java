@@ -1,5 +1,8 @@
 package org.example.simulator.vm;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,6 +18,28 @@ public class VmType {
 
     private List<Float> processingSpeedsInMips; // in Million Instructions per Second
 
+    // the DVFS levels compiled into primitive arrays, indexed by level
+    // (the position in the lists above); rebuilt whenever a list changes
+    private float[] voltageLevels;
+
+    private float[] frequencies;
+
+    private float[] processingSpeeds;
+
+    private float maximumVoltageLevel;
+
+    private float maximumFrequency;
+
+    private float maximumProcessingSpeed;
+
+    // levels in ascending order of processing speed, ties in level order,
+    // and their speeds, to find the slowest sufficient level by binary search
+    private int[] levelsBySpeed;
+
+    private float[] sortedProcessingSpeeds;
+
+    // set once the type is in a catalog; the type is read-only then
+    private boolean frozen;
 
     public VmType(int id, float costPerHour, List<Float> voltageLevelsInVolt, List<Float> frequenciesInGHz) {
         this.id = id;
@@ -24,14 +49,112 @@ public class VmType {
         this.processingSpeedsInMips = this.frequenciesInGHz.stream()
                 .map((freqInGHz) -> freqInGHz*1.0e3f)
                 .collect(Collectors.toList());
+        this.compileLevels();
+    }
+
+    private void compileLevels(){
+        this.voltageLevels = toArray(voltageLevelsInVolt);
+        this.frequencies = toArray(frequenciesInGHz);
+        this.processingSpeeds = toArray(processingSpeedsInMips);
+        this.maximumVoltageLevel = max(voltageLevels);
+        this.maximumFrequency = max(frequencies);
+        this.maximumProcessingSpeed = max(processingSpeeds);
+        Integer[] levels = new Integer[processingSpeeds.length];
+        for(int l = 0; l < levels.length; l++){
+            levels[l] = l;
+        }
+        Arrays.sort(levels, Comparator.comparingDouble((l) -> processingSpeeds[l]));
+        this.levelsBySpeed = new int[levels.length];
+        this.sortedProcessingSpeeds = new float[levels.length];
+        for(int k = 0; k < levels.length; k++){
+            levelsBySpeed[k] = levels[k];
+            sortedProcessingSpeeds[k] = processingSpeeds[levels[k]];
+        }
+    }
+
+    // to make the type read-only, so concurrent runs can share it
+    void freeze(){
+        if(this.frozen){
+            return;
+        }
+        this.voltageLevelsInVolt = Collections.unmodifiableList(this.voltageLevelsInVolt);
+        this.frequenciesInGHz = Collections.unmodifiableList(this.frequenciesInGHz);
+        this.processingSpeedsInMips = Collections.unmodifiableList(this.processingSpeedsInMips);
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen(){
+        if(this.frozen){
+            throw new IllegalStateException("VM type " + id + " belongs to a VM catalog");
+        }
+    }
+
+    private static float[] toArray(List<Float> values){
+        float[] array = new float[values.size()];
+        for(int k = 0; k < array.length; k++){
+            array[k] = values.get(k);
+        }
+        return array;
+    }
+
+    private static float max(float[] values){
+        float max = Float.NEGATIVE_INFINITY;
+        for(float value : values){
+            max = Math.max(max, value);
+        }
+        return max;
     }
 
     public float getMaximumProcessingSpeed(){
-        return this.processingSpeedsInMips.stream().max(Float::compareTo).get();
+        return this.maximumProcessingSpeed;
+    }
+
+    public float getMaximumVoltageLevel(){
+        return this.maximumVoltageLevel;
+    }
+
+    public float getMaximumFrequency(){
+        return this.maximumFrequency;
     }
 
     public float ratioOfComputingCostToMaxProcessingSpeed(){
-        return this.costPerSecond / this.processingSpeedsInMips.stream().max(Float::compareTo).get();
+        return this.costPerSecond / this.maximumProcessingSpeed;
+    }
+
+    // the level with the lowest processing speed that is at least the given
+    // speed, the first such level on ties, or -1 if no level is fast enough
+    public int slowestLevelAtLeast(float processingSpeed){
+        int lo = 0, hi = sortedProcessingSpeeds.length;
+        while(lo < hi){
+            int mid = (lo + hi) >>> 1;
+            if(sortedProcessingSpeeds[mid] >= processingSpeed){
+                hi = mid;
+            }
+            else {
+                lo = mid + 1;
+            }
+        }
+        return (lo < levelsBySpeed.length)? levelsBySpeed[lo]: -1;
+    }
+
+    public int getLevelCount(){
+        return processingSpeeds.length;
+    }
+
+    public float getVoltageLevel(int level){
+        return voltageLevels[level];
+    }
+
+    public float getFrequency(int level){
+        return frequencies[level];
+    }
+
+    public float getProcessingSpeed(int level){
+        return processingSpeeds[level];
     }
 
     public int getId() {
@@ -39,6 +162,7 @@ public class VmType {
     }
 
     public void setId(int id) {
+        checkNotFrozen();
         this.id = id;
     }
 
@@ -47,6 +171,7 @@ public class VmType {
     }
 
     public void setCostPerSecond(float costPerSecond) {
+        checkNotFrozen();
         this.costPerSecond = costPerSecond;
     }
 
@@ -55,7 +180,9 @@ public class VmType {
     }
 
     public void setVoltageLevelsInVolt(List<Float> voltageLevelsInVolt) {
+        checkNotFrozen();
         this.voltageLevelsInVolt = voltageLevelsInVolt;
+        this.compileLevels();
     }
 
     public List<Float> getFrequenciesInGHz() {
@@ -63,7 +190,9 @@ public class VmType {
     }
 
     public void setFrequenciesInGHz(List<Float> frequenciesInGHz) {
+        checkNotFrozen();
         this.frequenciesInGHz = frequenciesInGHz;
+        this.compileLevels();
     }
 
     public List<Float> getProcessingSpeedsInMips() {
@@ -71,7 +200,9 @@ public class VmType {
     }
 
     public void setProcessingSpeedsInMips(List<Float> processingSpeedsInMips) {
+        checkNotFrozen();
         this.processingSpeedsInMips = processingSpeedsInMips;
+        this.compileLevels();
     }
 
     @Override
@@ -0,0 +1,263 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.DataCenter;
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmCatalog;
+import org.example.simulator.vm.VmType;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// the pipeline ESDWB and its variants share, in four stages run for every task:
+//   1. priority ordering: tasks in descending order of their priorities
+//   2. predecessor-VM reuse: the first VM of a predecessor, by data size,
+//      where the task meets its sub-deadline within its budget
+//   3. VM-type selection: an idle or new VM of the first fast enough type
+//      within the budget, else of the type the policy falls back to
+//   4. DVFS reduction: once all tasks are placed, slower DVFS levels for
+//      the VMs of tasks with slack
+// a policy decides the budget of each task, how the surplus budget carries
+// over, in which order the fast enough VM types are tried and which type to
+// fall back to; the stages use the precomputed priorities, sub-deadlines,
+// execution matrix, CSR graph and VM catalog of the workflow throughout
+public abstract class AbstractESDWBScheduler implements Scheduler {
+
+    // surplus budget before the first task
+    protected abstract float initialSurplusBudget(Workflow workflow, float beta);
+
+    // budget of a task from the surplus left by the tasks before it
+    protected abstract float taskBudget(ExecutionMatrix matrix, Task t, float surplusBudget, float beta);
+
+    // how the placement of a task on a VM of the type changes the surplus
+    // budget, as logged in the Update column
+    protected abstract float budgetUpdate(ExecutionMatrix matrix, Task t, VmType tau, float taskBudget);
+
+    // surplus budget after the placement of a task
+    protected abstract float surplusBudgetAfter(float surplusBudget, float update);
+
+    // the k-th VM type to try among the given number of fast enough ones,
+    // which are the fastest ones of the catalog
+    protected abstract VmType candidateVmType(VmCatalog catalog, int fastEnough, int k);
+
+    // the VM type to use when no fast enough one is within the budget,
+    // or null if no type is within it
+    protected abstract VmType fallbackVmType(VmCatalog catalog, float length, float taskBudget);
+
+    @Override
+    public Schedule schedule(Workflow workflow, float alpha, float beta, Placement placement) {
+
+        boolean verbose = workflow.isVerbose();
+        if(verbose){
+            System.out.println("Executing " + getName() + "...");
+        }
+
+        // the state of this run alone: a data center, its VMs and the schedule
+        SchedulingRun run = new SchedulingRun(workflow, getName());
+        DataCenter dataCenter = run.getDataCenter();
+        Schedule efficientSchedule = run.getSchedule();
+
+        // sub-deadlines of all tasks, shared by every run on this workflow
+        SchedulingContext context = workflow.getSchedulingContext();
+
+        // execution times and costs of the tasks on each VM type
+        ExecutionMatrix matrix = workflow.getExecutionMatrix();
+
+        // reused by every predecessor-VM reuse of the run
+        List<Vm> predecessorVms = new ArrayList<>();
+
+        float surplusBudget = initialSurplusBudget(workflow, beta);
+
+        // for logging
+        BufferedWriter br = workflow.isLogging()? openLog(workflow): null;
+
+        // for progress
+        List<Task> sortedReversedByPriority = prioritize(context);
+        int iteration = 0;
+        int totalTasks = sortedReversedByPriority.size();
+
+        // loop through all tasks in workflow
+        for(Task t : sortedReversedByPriority){
+
+            // for progress
+            int progress = (int) (((float)iteration/totalTasks) * 100.0f);
+            if(verbose){
+                System.out.print("Processing: " + progress + "% " + "\r");
+            }
+            iteration += 1;
+
+            // for logging
+            float surplusBudgetForThisRound = surplusBudget;
+
+            // budget and deadline of the task
+            float taskBudget = taskBudget(matrix, t, surplusBudget, beta);
+            float taskDeadline = context.deadline(t, alpha);
+
+            // stages 2 and 3
+            Vm v = reusePredecessorVm(run, t, taskDeadline, taskBudget, placement, predecessorVms);
+            if(v == null){
+                v = selectVm(run, t, taskDeadline, taskBudget, placement);
+            }
+            float update = budgetUpdate(matrix, t, v.getType(), taskBudget);
+            surplusBudget = surplusBudgetAfter(surplusBudget, update);
+
+            // log Task-ID,Surplus Budget,Task's Budget,Task's Min. Cost,Task's Max. Cost,VM-ID,Task's Cost,Update
+            if(br != null){
+                try {
+                    br.write(t.getId() + "," +
+                            surplusBudgetForThisRound + "," +
+                            taskBudget + "," +
+                            matrix.minimumCost(t) + "," +
+                            matrix.maximumCost(t) + "," +
+                            v.getId() + "," +
+                            matrix.cost(t, v.getType()) + "," +
+                            update + "\n");
+                }
+                catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+
+        }
+
+        if(br != null){
+            try {
+                br.close();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        // stage 4
+        reduceEnergyConsumption(workflow, efficientSchedule);
+        if(verbose){
+            System.out.println("Processing: Done!          ");
+        }
+
+        return efficientSchedule;
+
+    }
+
+    // stage 1: workflow-tasks in descending order of their priorities
+    protected List<Task> prioritize(SchedulingContext context){
+        return context.getSortedReversedByPriority();
+    }
+
+    // stage 2: the VMs where the predecessors were assigned, in descending order
+    // of the data sizes transferred to the task, are tried in turn; the task
+    // stays on the first one where it finishes within its deadline and costs
+    // within its budget, every other trial is rolled back; null if there is
+    // none, or the task is an entry task
+    protected Vm reusePredecessorVm(SchedulingRun run, Task t, float taskDeadline, float taskBudget,
+                                    Placement placement, List<Vm> predecessorVms){
+        WorkflowGraph graph = run.getWorkflow().getGraph();
+        int[] predecessorOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        int[] predecessorsByDataSize = graph.getPredecessorsByDataSize();
+        ExecutionMatrix matrix = run.getWorkflow().getExecutionMatrix();
+        Schedule schedule = run.getSchedule();
+
+        predecessorVms.clear();
+        for(int e = predecessorOffsets[t.getIndex()]; e < predecessorOffsets[t.getIndex() + 1]; e++){
+            predecessorVms.add(schedule.getAssignedVm(predecessors[predecessorsByDataSize[e]]));
+        }
+        for(Vm v_tp : predecessorVms){
+            if(matrix.cost(t, v_tp.getType())>taskBudget){
+                continue;
+            }
+            schedule.tryAssign(t, v_tp, placement);
+            if(schedule.actualFinishTime(t)<=taskDeadline){
+                schedule.commit();
+                return v_tp;
+            }
+            schedule.rollback();
+        }
+        return null;
+    }
+
+    // stage 3: an idle or new VM of the fast enough types in the order of the
+    // policy, the first one within the budget; otherwise one of the type the
+    // policy falls back to; the task is assigned to the VM
+    protected Vm selectVm(SchedulingRun run, Task t, float taskDeadline, float taskBudget, Placement placement){
+        DataCenter dataCenter = run.getDataCenter();
+        Schedule schedule = run.getSchedule();
+        ExecutionMatrix matrix = run.getWorkflow().getExecutionMatrix();
+
+        // minimum required processing speed of the task
+        float minimumNeededProcessingSpeed = t.minimumNeededProcessingSpeed(taskDeadline, schedule);
+
+        // the VM-types having maximum processing speed more than the minNeededProcessingSpeed
+        // are the fastest ones of the catalog
+        VmCatalog catalog = dataCenter.getVmCatalog();
+        int fastEnough = catalog.countAtLeast(minimumNeededProcessingSpeed);
+        for(int k = 0; k < fastEnough; k++){
+            VmType tau = candidateVmType(catalog, fastEnough, k);
+
+            // get a idle/new VM of type tau, and check if cost of executing
+            // the task running on it stays within its budget
+            Vm v_idle = dataCenter.findIdleVm(schedule, t, tau, placement);
+            if(v_idle == null){
+                v_idle = dataCenter.launchNewVm(tau);
+            }
+            if(matrix.cost(t, v_idle.getType())<=taskBudget){
+                schedule.assign(t, v_idle, placement);
+                return v_idle;
+            }
+        }
+
+        VmType tau_b = null;
+        try {
+            tau_b = fallbackVmType(catalog, t.getLength(), taskBudget);
+            if(tau_b == null){
+                throw new NoSuchElementException("No VM type within the budget of the task");
+            }
+
+            // get an idle/new VM of type tau_b and assign to it
+            Vm v_idle = dataCenter.findIdleVm(schedule, t, tau_b, placement);
+            if (v_idle == null) {
+                v_idle = dataCenter.launchNewVm(tau_b);
+            }
+            schedule.assign(t, v_idle, placement);
+            return v_idle;
+        }
+        catch (Exception exc){
+            if(run.getWorkflow().isVerbose()){
+                System.out.println("No idle/new VM found!");
+                System.out.println(t);
+                System.out.println(tau_b);
+            }
+            // the run cannot go on; callers running many of them
+            // (e.g. ParameterSweep) record it instead of exiting
+            throw new IllegalStateException("No idle/new VM found for " + t.getId(), exc);
+        }
+    }
+
+    // stage 4: DVFS on the VMs of the run, given the makespan of the schedule
+    protected void reduceEnergyConsumption(Workflow workflow, Schedule schedule){
+        float actualMakespan = workflow.actualMakespan(schedule);
+        workflow.reduceEnergyConsumedByTasks(schedule, actualMakespan);
+    }
+
+    private BufferedWriter openLog(Workflow workflow){
+        File logFile = new File("src/main/resources/logs/" +
+                getName() + "-" + workflow.getName() + "-" + workflow.getTaskList().size() + ".csv");
+        try {
+            if(!logFile.exists()){
+                logFile.createNewFile();
+            }
+            BufferedWriter br = new BufferedWriter(new FileWriter(logFile));
+            br.write("Task,Surplus,Budget,Min. cost,Max. cost,Vm,Cost,Update\n");
+            return br;
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+}
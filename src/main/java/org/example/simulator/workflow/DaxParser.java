@@ -0,0 +1,192 @@
+package org.example.simulator.workflow;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// streaming reader of DAX (DAG in XML) files: builds the tasks of a workflow
+// and the edges between them in a single pass over the StAX events of the
+// file, so only the tasks themselves are kept in memory, never a document tree
+public class DaxParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    // processing speed (MIPS) that turns the runtime of a job into its length
+    private float processingSpeed;
+
+    // output files of the last parse by file name, usually one per name,
+    // each with the task producing it
+    private Map<String,List<FileItem>> producers;
+
+    // statistics of the last parse
+    private long bytesRead;
+
+    private long elapsedNanos;
+
+    private int jobCount;
+
+    private int edgeCount;
+
+    public DaxParser(float processingSpeed){
+        this.processingSpeed = processingSpeed;
+    }
+
+    private static XMLInputFactory createFactory(){
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    // to parse a DAX file into tasks, indexed in the order of their jobs,
+    // with their input files, predecessors and successors
+    public List<Task> parse(File dax) throws IOException, XMLStreamException {
+        long start = System.nanoTime();
+        List<Task> taskList;
+        try(InputStream in = new BufferedInputStream(new FileInputStream(dax), 1 << 16)){
+            taskList = parse(in);
+        }
+        this.bytesRead = dax.length();
+        this.elapsedNanos = System.nanoTime() - start;
+        return taskList;
+    }
+
+    public List<Task> parse(InputStream in) throws XMLStreamException {
+
+        List<Task> taskList = new ArrayList<>();
+        Map<String,Task> taskMap = new HashMap<>();
+        this.producers = new HashMap<>();
+        this.jobCount = 0;
+        this.edgeCount = 0;
+
+        // the job or the child element the reader is in, if any
+        Task job = null;
+        Task child = null;
+
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            while(reader.hasNext()){
+                int event = reader.next();
+                if(event == XMLStreamConstants.END_ELEMENT){
+                    switch(reader.getLocalName().toLowerCase()){
+                        case "job":
+                            job = null;
+                            break;
+                        case "child":
+                            child = null;
+                            break;
+                    }
+                    continue;
+                }
+                if(event != XMLStreamConstants.START_ELEMENT){
+                    continue;
+                }
+
+                switch(reader.getLocalName().toLowerCase()){
+
+                    // a job: id, name and length of the task
+                    case "job":
+                        String id = reader.getAttributeValue(null, "id");
+                        String name = reader.getAttributeValue(null, "name");
+                        float runtime = Float.parseFloat(reader.getAttributeValue(null, "runtime")); // in seconds
+                        job = new Task(id, name, runtime * processingSpeed);
+                        job.setIndex(taskList.size());
+                        taskList.add(job);
+                        taskMap.put(id, job);
+                        jobCount += 1;
+                        break;
+
+                    // a file used by the job: keep the input files
+                    // and index the output files by their names
+                    case "uses":
+                        if(job == null){
+                            break;
+                        }
+                        String fileType = reader.getAttributeValue(null, "link");
+                        if("input".equalsIgnoreCase(fileType)){
+                            String fileName = reader.getAttributeValue(null, "file");
+                            float fileSize = Float.parseFloat(reader.getAttributeValue(null, "size"));
+                            job.getRequiredData().add(new FileItem(fileName, fileSize));
+                        }
+                        else if("output".equalsIgnoreCase(fileType)){
+                            String fileName = reader.getAttributeValue(null, "file");
+                            float fileSize = Float.parseFloat(reader.getAttributeValue(null, "size"));
+                            producers.computeIfAbsent(fileName, (k) -> new ArrayList<>(1))
+                                    .add(new FileItem(fileName, fileSize, job));
+                        }
+                        break;
+
+                    // a child: the task the following parents are predecessors of,
+                    // if the workflow has a task with that id
+                    case "child":
+                        child = taskMap.get(reader.getAttributeValue(null, "ref"));
+                        break;
+
+                    // a parent of the enclosing child
+                    case "parent":
+                        if(child == null){
+                            break;
+                        }
+                        Task parent = taskMap.get(reader.getAttributeValue(null, "ref"));
+                        if(parent != null){
+                            child.addPredecessor(parent);
+                            parent.addSuccessor(child);
+                            edgeCount += 1;
+                        }
+                        break;
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return taskList;
+    }
+
+    public Map<String, List<FileItem>> getProducers() {
+        return producers;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getJobCount() {
+        return jobCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // parse throughput of the last file
+    public double jobsPerSecond(){
+        return jobCount / (elapsedNanos / 1.0e9);
+    }
+
+    public double megabytesPerSecond(){
+        return (bytesRead / 1.0e6) / (elapsedNanos / 1.0e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d jobs, %d edges in %.1f ms (%.0f jobs/s, %.1f MB/s)",
+                jobCount, edgeCount, elapsedNanos / 1.0e6, jobsPerSecond(), megabytesPerSecond());
+    }
+
+}
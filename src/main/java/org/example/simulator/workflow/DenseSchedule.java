@@ -0,0 +1,18 @@
+package org.example.simulator.workflow;
+
+// a Schedule backed by primitive arrays over dense task and VM ids,
+// for workflows whose size is known up front; tasks must come from one
+// workflow (Task.getIndex()) and VMs from one data center (Vm.getId())
+public class DenseSchedule extends Schedule {
+
+    public DenseSchedule(String algorithmName, String workflowName, int workflowSize){
+        super(algorithmName, workflowName, workflowSize, new DenseScheduleBackend(workflowSize));
+    }
+
+    // a dense schedule that reads the predecessors, successors and transferred
+    // data sizes of the tasks from the CSR graph of their workflow
+    public DenseSchedule(String algorithmName, String workflowName, WorkflowGraph graph){
+        super(algorithmName, workflowName, graph, new DenseScheduleBackend(graph.size()));
+    }
+
+}
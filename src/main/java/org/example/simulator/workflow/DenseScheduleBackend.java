@@ -0,0 +1,185 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.Vm;
+
+import java.util.*;
+
+// backend for large workflows: tasks and VMs are addressed by their dense
+// integer ids (Task.getIndex() and Vm.getId()), and the assignment is held
+// in primitive arrays, so scheduling allocates nothing per task
+class DenseScheduleBackend implements ScheduleBackend {
+
+    private static final int NONE = -1;
+
+    // tasks and VMs by their ids
+    private Task[] tasks;
+
+    private Vm[] vms;
+
+    // id of the VM of each task, NONE if it is not assigned
+    private int[] vmIds;
+
+    // slot of each task in the task order of its VM
+    private int[] positions;
+
+    // task ids in the order they run on each VM, and their count
+    private int[][] taskOrders;
+
+    private int[] taskCounts;
+
+    DenseScheduleBackend(int workflowSize){
+        this.tasks = new Task[workflowSize];
+        this.vmIds = new int[workflowSize];
+        this.positions = new int[workflowSize];
+        Arrays.fill(this.vmIds, NONE);
+        this.vms = new Vm[16];
+        this.taskOrders = new int[16][];
+        this.taskCounts = new int[16];
+    }
+
+    @Override
+    public Vm getVm(int taskIndex){
+        if(taskIndex >= vmIds.length || vmIds[taskIndex] == NONE){
+            return null;
+        }
+        return vms[vmIds[taskIndex]];
+    }
+
+    @Override
+    public int getPosition(int taskIndex){
+        return positions[taskIndex];
+    }
+
+    @Override
+    public Task getTask(Vm vm, int position){
+        return tasks[taskOrders[vm.getId()][position]];
+    }
+
+    @Override
+    public int size(Vm vm){
+        return hasVm(vm)? taskCounts[vm.getId()]: 0;
+    }
+
+    @Override
+    public int append(Task task, Vm vm){
+        int position = size(vm);
+        insert(task, vm, position);
+        return position;
+    }
+
+    @Override
+    public void insert(Task task, Vm vm, int position){
+        int idx = task.getIndex();
+        int vmId = vm.getId();
+        ensureTaskCapacity(idx);
+        ensureVmCapacity(vmId);
+        if(vms[vmId] == null){
+            vms[vmId] = vm;
+            taskOrders[vmId] = new int[4];
+            taskCounts[vmId] = 0;
+        }
+        int[] order = taskOrders[vmId];
+        int count = taskCounts[vmId];
+        if(count == order.length){
+            order = taskOrders[vmId] = Arrays.copyOf(order, 2 * count);
+        }
+        System.arraycopy(order, position, order, position + 1, count - position);
+        order[position] = idx;
+        taskCounts[vmId] = count + 1;
+        tasks[idx] = task;
+        vmIds[idx] = vmId;
+
+        // shift the tasks scheduled after the inserted one
+        for(int k = position; k <= count; k++){
+            positions[order[k]] = k;
+        }
+    }
+
+    @Override
+    public void remove(Task task, Vm vm, int position){
+        int vmId = vm.getId();
+        int[] order = taskOrders[vmId];
+        int count = taskCounts[vmId] - 1;
+        System.arraycopy(order, position + 1, order, position, count - position);
+        taskCounts[vmId] = count;
+        vmIds[task.getIndex()] = NONE;
+
+        // shift the tasks scheduled after the removed one
+        for(int k = position; k < count; k++){
+            positions[order[k]] = k;
+        }
+    }
+
+    @Override
+    public boolean hasVm(Vm vm){
+        int vmId = vm.getId();
+        return vmId >= 0 && vmId < vms.length && vms[vmId] != null;
+    }
+
+    @Override
+    public void removeVm(Vm vm){
+        if(hasVm(vm)){
+            vms[vm.getId()] = null;
+            taskOrders[vm.getId()] = null;
+            taskCounts[vm.getId()] = 0;
+        }
+    }
+
+    @Override
+    public List<Task> getTasks(Vm vm){
+        if(!hasVm(vm)){
+            return null;
+        }
+        int vmId = vm.getId();
+        return new AbstractList<Task>() {
+            @Override
+            public Task get(int position) {
+                if(position >= taskCounts[vmId]){
+                    throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + taskCounts[vmId]);
+                }
+                return tasks[taskOrders[vmId][position]];
+            }
+
+            @Override
+            public int size() {
+                return taskCounts[vmId];
+            }
+        };
+    }
+
+    // VMs in ascending order of their ids
+    @Override
+    public Collection<Vm> getVms(){
+        List<Vm> vmList = new ArrayList<>();
+        for(Vm vm : vms){
+            if(vm != null){
+                vmList.add(vm);
+            }
+        }
+        return vmList;
+    }
+
+    private void ensureTaskCapacity(int idx){
+        if(idx >= vmIds.length){
+            int length = Math.max(idx + 1, 2 * vmIds.length);
+            int oldLength = vmIds.length;
+            tasks = Arrays.copyOf(tasks, length);
+            vmIds = Arrays.copyOf(vmIds, length);
+            positions = Arrays.copyOf(positions, length);
+            Arrays.fill(vmIds, oldLength, length, NONE);
+        }
+    }
+
+    private void ensureVmCapacity(int vmId){
+        if(vmId < 0){
+            throw new IllegalArgumentException("VM id must not be negative: " + vmId);
+        }
+        if(vmId >= vms.length){
+            int length = Math.max(vmId + 1, 2 * vms.length);
+            vms = Arrays.copyOf(vms, length);
+            taskOrders = Arrays.copyOf(taskOrders, length);
+            taskCounts = Arrays.copyOf(taskCounts, length);
+        }
+    }
+
+}
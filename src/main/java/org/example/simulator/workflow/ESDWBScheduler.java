@@ -0,0 +1,48 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.VmCatalog;
+import org.example.simulator.vm.VmType;
+
+// ESDWB: a task may spend its minimum cost plus the surplus budget left by
+// the tasks before it, which starts from beta times the spread of the naive
+// costs and shrinks by what each task spends over its minimum; the fast
+// enough VM types are tried slowest first, and the fallback is the fastest
+// type within the budget
+public class ESDWBScheduler extends AbstractESDWBScheduler {
+
+    @Override
+    public String getName() {
+        return "ESDWB";
+    }
+
+    @Override
+    protected float initialSurplusBudget(Workflow workflow, float beta) {
+        return workflow.initialSurplusBudget(beta);
+    }
+
+    @Override
+    protected float taskBudget(ExecutionMatrix matrix, Task t, float surplusBudget, float beta) {
+        return matrix.budget(t, surplusBudget);
+    }
+
+    @Override
+    protected float budgetUpdate(ExecutionMatrix matrix, Task t, VmType tau, float taskBudget) {
+        return matrix.cost(t, tau) - matrix.minimumCost(t);
+    }
+
+    @Override
+    protected float surplusBudgetAfter(float surplusBudget, float update) {
+        return surplusBudget - update;
+    }
+
+    @Override
+    protected VmType candidateVmType(VmCatalog catalog, int fastEnough, int k) {
+        return catalog.getBySpeed(catalog.size() - fastEnough + k);
+    }
+
+    @Override
+    protected VmType fallbackVmType(VmCatalog catalog, float length, float taskBudget) {
+        return catalog.fastestWithinBudget(length, taskBudget);
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.example.simulator.workflow;
+
+import java.util.Arrays;
+
+// binary min-heap of the pending events of an ExecutionSimulator, keyed by
+// their time; ties go to the event pushed first, so a run is deterministic;
+// events are kept in parallel primitive arrays, a kind and the index of the
+// task, edge or VM slot it is about
+class EventQueue {
+
+    static final byte VM_LAUNCH = 0, TASK_START = 1, TASK_FINISH = 2, TRANSFER_START = 3, TRANSFER_FINISH = 4;
+
+    private float[] times;
+
+    private long[] sequences;
+
+    private byte[] kinds;
+
+    private int[] targets;
+
+    private int size;
+
+    private long nextSequence;
+
+    // of the event last taken by poll
+    private float time;
+
+    private byte kind;
+
+    private int target;
+
+    EventQueue(int capacity){
+        capacity = Math.max(capacity, 16);
+        this.times = new float[capacity];
+        this.sequences = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.targets = new int[capacity];
+    }
+
+    // to drop all events, keeping the arrays for the next run
+    void clear(){
+        size = 0;
+        nextSequence = 0;
+    }
+
+    boolean isEmpty(){
+        return size == 0;
+    }
+
+    void push(float time, byte kind, int target){
+        if(size == times.length){
+            int length = 2 * size;
+            times = Arrays.copyOf(times, length);
+            sequences = Arrays.copyOf(sequences, length);
+            kinds = Arrays.copyOf(kinds, length);
+            targets = Arrays.copyOf(targets, length);
+        }
+        int k = size++;
+        times[k] = time;
+        sequences[k] = nextSequence++;
+        kinds[k] = kind;
+        targets[k] = target;
+        siftUp(k);
+    }
+
+    // to take the earliest event; read it by time(), kind() and target()
+    void poll(){
+        time = times[0];
+        kind = kinds[0];
+        target = targets[0];
+        size--;
+        if(size > 0){
+            move(size, 0);
+            siftDown(0);
+        }
+    }
+
+    float time(){
+        return time;
+    }
+
+    byte kind(){
+        return kind;
+    }
+
+    int target(){
+        return target;
+    }
+
+    private void siftUp(int k){
+        while(k > 0){
+            int parent = (k - 1) / 2;
+            if(!less(k, parent)){
+                break;
+            }
+            swap(k, parent);
+            k = parent;
+        }
+    }
+
+    private void siftDown(int k){
+        while(true){
+            int child = 2 * k + 1;
+            if(child >= size){
+                return;
+            }
+            if(child + 1 < size && less(child + 1, child)){
+                child++;
+            }
+            if(!less(child, k)){
+                return;
+            }
+            swap(k, child);
+            k = child;
+        }
+    }
+
+    private boolean less(int i, int j){
+        if(times[i] != times[j]){
+            return times[i] < times[j];
+        }
+        return sequences[i] < sequences[j];
+    }
+
+    private void swap(int i, int j){
+        float t = times[i];
+        long s = sequences[i];
+        byte b = kinds[i];
+        int x = targets[i];
+        move(j, i);
+        times[j] = t;
+        sequences[j] = s;
+        kinds[j] = b;
+        targets[j] = x;
+    }
+
+    private void move(int from, int to){
+        times[to] = times[from];
+        sequences[to] = sequences[from];
+        kinds[to] = kinds[from];
+        targets[to] = targets[from];
+    }
+
+}
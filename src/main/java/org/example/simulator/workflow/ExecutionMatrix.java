@@ -0,0 +1,150 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.VmType;
+
+import java.util.List;
+
+// execution times and monetary costs of every task of a workflow on every
+// VM type, at the maximum processing speed and at each DVFS level of the type;
+// rows are indexed by Task.getIndex(), columns by the position of the VM type
+// in the list it was built from, which must match VmType.getId()
+public class ExecutionMatrix {
+
+    private int taskCount;
+
+    private int typeCount;
+
+    // [task * typeCount + type], at the maximum processing speed
+    private float[] executionTimes;
+
+    private float[] costs;
+
+    // [task * levelCount + levelOffsets[type] + level], level as in
+    // VmType.getProcessingSpeed(level)
+    private int levelCount;
+
+    private int[] levelOffsets;
+
+    private float[] levelExecutionTimes;
+
+    private float[] levelCosts;
+
+    // indexed by Task.getIndex()
+    private float[] minimumCosts;
+
+    private float[] maximumCosts;
+
+    private float[] averageExecutionTimes;
+
+    public ExecutionMatrix(List<Task> taskList, List<VmType> vmTypeList){
+        this.taskCount = taskList.size();
+        this.typeCount = vmTypeList.size();
+
+        // speeds and prices of the VM types, read once
+        float[] maximumSpeeds = new float[typeCount];
+        float[] costsPerSecond = new float[typeCount];
+        this.levelOffsets = new int[typeCount + 1];
+        for(int j = 0; j < typeCount; j++){
+            VmType tau = vmTypeList.get(j);
+            if(tau.getId() != j){
+                throw new IllegalArgumentException(tau + " is not at position " + tau.getId() + " of the VM type list");
+            }
+            maximumSpeeds[j] = tau.getMaximumProcessingSpeed();
+            costsPerSecond[j] = tau.getCostPerSecond();
+            levelOffsets[j + 1] = levelOffsets[j] + tau.getLevelCount();
+        }
+        this.levelCount = levelOffsets[typeCount];
+        float[] levelSpeeds = new float[levelCount];
+        for(int j = 0; j < typeCount; j++){
+            VmType tau = vmTypeList.get(j);
+            for(int l = 0; l < tau.getLevelCount(); l++){
+                levelSpeeds[levelOffsets[j] + l] = tau.getProcessingSpeed(l);
+            }
+        }
+
+        this.executionTimes = new float[taskCount * typeCount];
+        this.costs = new float[taskCount * typeCount];
+        this.levelExecutionTimes = new float[taskCount * levelCount];
+        this.levelCosts = new float[taskCount * levelCount];
+        this.minimumCosts = new float[taskCount];
+        this.maximumCosts = new float[taskCount];
+        this.averageExecutionTimes = new float[taskCount];
+
+        // same arithmetic as Task.executionTime and Task.cost
+        for(Task ti : taskList){
+            int i = ti.getIndex();
+            float length = ti.getLength();
+            float minCost = Float.POSITIVE_INFINITY, maxCost = Float.NEGATIVE_INFINITY;
+            float totalExecutionTime = 0.0f;
+            for(int j = 0; j < typeCount; j++){
+                float et = length / maximumSpeeds[j];
+                float cost = ((float) Math.ceil(et)) * costsPerSecond[j];
+                executionTimes[i * typeCount + j] = et;
+                costs[i * typeCount + j] = cost;
+                minCost = Math.min(minCost, cost);
+                maxCost = Math.max(maxCost, cost);
+                totalExecutionTime += et;
+                for(int k = levelOffsets[j]; k < levelOffsets[j + 1]; k++){
+                    float levelEt = length / levelSpeeds[k];
+                    levelExecutionTimes[i * levelCount + k] = levelEt;
+                    levelCosts[i * levelCount + k] = ((float) Math.ceil(levelEt)) * costsPerSecond[j];
+                }
+            }
+            minimumCosts[i] = minCost;
+            maximumCosts[i] = maxCost;
+            averageExecutionTimes[i] = totalExecutionTime / typeCount;
+        }
+    }
+
+    // execution time of a task on a fresh VM of a type
+    public float executionTime(Task task, VmType vmType){
+        return executionTimes[task.getIndex() * typeCount + vmType.getId()];
+    }
+
+    // execution time of a task on a VM of a type running at a DVFS level
+    public float executionTime(Task task, VmType vmType, int level){
+        return levelExecutionTimes[task.getIndex() * levelCount + levelOffsets[vmType.getId()] + level];
+    }
+
+    // monetary cost of a task on a fresh VM of a type
+    public float cost(Task task, VmType vmType){
+        return costs[task.getIndex() * typeCount + vmType.getId()];
+    }
+
+    // monetary cost of a task on a VM of a type running at a DVFS level
+    public float cost(Task task, VmType vmType, int level){
+        return levelCosts[task.getIndex() * levelCount + levelOffsets[vmType.getId()] + level];
+    }
+
+    public float minimumCost(Task task){
+        return minimumCosts[task.getIndex()];
+    }
+
+    public float maximumCost(Task task){
+        return maximumCosts[task.getIndex()];
+    }
+
+    public float averageExecutionTime(Task task){
+        return averageExecutionTimes[task.getIndex()];
+    }
+
+    // from equation-(14)
+    public float budget(Task task, float surplusBudget){
+        return minimumCosts[task.getIndex()] + surplusBudget;
+    }
+
+    // for modified algorithm
+    public float modifiedBudget(Task task, float beta){
+        float minCost = minimumCosts[task.getIndex()], maxCost = maximumCosts[task.getIndex()];
+        return minCost + beta*(maxCost-minCost);
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+}
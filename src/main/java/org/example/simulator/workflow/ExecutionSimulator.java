@@ -0,0 +1,294 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.DataCenter;
+import org.example.simulator.vm.Vm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// runs a schedule as a discrete-event simulation instead of evaluating its
+// timing equations: a VM is launched once its first task has all its inputs,
+// a task starts once its inputs have arrived and the task before it on its
+// VM has finished, and every finished task starts a transfer to each of its
+// successors, which takes no time between tasks on the same VM
+//
+// the events (VM launch, task start/finish, transfer start/finish) go
+// through one priority queue, so a run takes O(E log E) for E edges; with
+// no boot time the start and finish times are those of equations-(16) to (18)
+//
+// the VMs, the task order on each of them and the edges of the workflow are
+// compiled once, so one simulator replays its schedule any number of times,
+// also with other task lengths and data sizes, either event by event or, for
+// many runs, by replay in O(E); a simulator is not thread safe
+public class ExecutionSimulator {
+
+    private WorkflowGraph graph;
+
+    // the VMs of the schedule in ascending order of their ids, as VM slots
+    private Vm[] vms;
+
+    // indexed by VM slot
+    private float[] processingSpeeds;
+
+    private int[] firstTasks;
+
+    // indexed by Task.getIndex(): the VM slot of a task and the task after it
+    // on that VM, -1 for the last one
+    private int[] vmSlots;
+
+    private int[] nextTasks;
+
+    private int[] previousTasks;
+
+    // task indices in an order where every task comes after its predecessors
+    // and the task before it on its VM, built by the first replay
+    private int[] executionOrder;
+
+    // indexed by predecessor edge (see WorkflowGraph): the task an edge leads to
+    private int[] edgeTargets;
+
+    // the predecessor edges leaving each task, laid out like the successors
+    private int[] outgoingEdges;
+
+    // seconds from launching a VM until it can run its first task
+    private float vmBootTime;
+
+    // work arrays of a run
+    private EventQueue events;
+
+    private int[] pendingInputs;
+
+    private float[] readyTimes;
+
+    public ExecutionSimulator(Workflow workflow, Schedule schedule){
+        this.graph = workflow.getGraph();
+        int n = graph.size();
+
+        Map<Vm,List<Task>> assignment = schedule.getAssignment();
+        this.vms = assignment.keySet().stream()
+                .sorted((vm1, vm2) -> vm1.getId() - vm2.getId())
+                .toArray(Vm[]::new);
+        this.processingSpeeds = new float[vms.length];
+        this.firstTasks = new int[vms.length];
+        this.vmSlots = new int[n];
+        this.nextTasks = new int[n];
+        this.previousTasks = new int[n];
+        Arrays.fill(vmSlots, -1);
+        for(int v = 0; v < vms.length; v++){
+            processingSpeeds[v] = vms[v].getProcessingSpeed();
+            List<Task> tasks = assignment.get(vms[v]);
+            firstTasks[v] = tasks.get(0).getIndex();
+            for(int k = 0; k < tasks.size(); k++){
+                int i = tasks.get(k).getIndex();
+                vmSlots[i] = v;
+                nextTasks[i] = (k + 1 < tasks.size())? tasks.get(k + 1).getIndex(): -1;
+                previousTasks[i] = (k > 0)? tasks.get(k - 1).getIndex(): -1;
+            }
+        }
+        for(int i = 0; i < n; i++){
+            if(vmSlots[i] < 0){
+                throw new IllegalStateException(graph.getTask(i) + " is not assigned to any VM");
+            }
+        }
+
+        // the predecessor edges again, grouped by the task they leave
+        int[] predecessorOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        int[] successorOffsets = graph.getSuccessorOffsets();
+        this.edgeTargets = new int[graph.edgeCount()];
+        this.outgoingEdges = new int[graph.edgeCount()];
+        int[] cursors = new int[n];
+        for(int i = 0; i < n; i++){
+            for(int e = predecessorOffsets[i]; e < predecessorOffsets[i + 1]; e++){
+                int p = predecessors[e];
+                edgeTargets[e] = i;
+                outgoingEdges[successorOffsets[p] + cursors[p]++] = e;
+            }
+        }
+
+        this.events = new EventQueue(2 * n);
+        this.pendingInputs = new int[n];
+        this.readyTimes = new float[n];
+    }
+
+    // to run the schedule with the task lengths and data sizes of the workflow
+    public ExecutionTrace simulate(){
+        int n = graph.size();
+        float[] lengths = new float[n];
+        for(int i = 0; i < n; i++){
+            lengths[i] = graph.getLength(i);
+        }
+        return simulate(lengths, graph.getPredecessorDataSizes());
+    }
+
+    // to run the schedule with other task lengths, indexed by Task.getIndex(),
+    // and data sizes, indexed by predecessor edge
+    public ExecutionTrace simulate(float[] lengths, float[] dataSizes){
+        int n = graph.size();
+        int[] predecessors = graph.getPredecessors();
+        int[] successorOffsets = graph.getSuccessorOffsets();
+        ExecutionTrace trace = new ExecutionTrace(graph, vms, vmSlots, lengths);
+        float[] startTimes = trace.getStartTimes();
+        float[] finishTimes = trace.getFinishTimes();
+        float[] launchTimes = trace.getLaunchTimes();
+
+        // a task waits for each of its predecessors and for its VM slot, which
+        // is the launch of the VM for the first task and the task before it otherwise
+        events.clear();
+        for(int i = 0; i < n; i++){
+            pendingInputs[i] = graph.getPredecessorCount(i) + 1;
+            readyTimes[i] = 0.0f;
+        }
+        for(int v = 0; v < vms.length; v++){
+            if(pendingInputs[firstTasks[v]] == 1){
+                events.push(0.0f, EventQueue.VM_LAUNCH, v);
+            }
+        }
+
+        int finished = 0;
+        long eventCount = 0;
+        while(!events.isEmpty()){
+            events.poll();
+            eventCount += 1;
+            float time = events.time();
+            int x = events.target();
+            switch(events.kind()){
+                case EventQueue.VM_LAUNCH:
+                    launchTimes[x] = time;
+                    release(firstTasks[x], time + vmBootTime);
+                    break;
+                case EventQueue.TASK_START:
+                    startTimes[x] = time;
+                    events.push(time + lengths[x] / processingSpeeds[vmSlots[x]], EventQueue.TASK_FINISH, x);
+                    break;
+                case EventQueue.TASK_FINISH:
+                    finishTimes[x] = time;
+                    finished += 1;
+                    for(int k = successorOffsets[x]; k < successorOffsets[x + 1]; k++){
+                        events.push(time, EventQueue.TRANSFER_START, outgoingEdges[k]);
+                    }
+                    if(nextTasks[x] >= 0){
+                        release(nextTasks[x], time);
+                    }
+                    break;
+                case EventQueue.TRANSFER_START:
+                    float tt = (vmSlots[predecessors[x]] == vmSlots[edgeTargets[x]])? 0.0f
+                            : dataSizes[x] / DataCenter.BANDWIDTH;
+                    events.push(time + tt, EventQueue.TRANSFER_FINISH, x);
+                    break;
+                case EventQueue.TRANSFER_FINISH:
+                    release(edgeTargets[x], time);
+                    break;
+            }
+        }
+        if(finished < n){
+            throw new IllegalStateException((n - finished) + " tasks wait for each other in the schedule");
+        }
+        trace.complete(eventCount);
+        return trace;
+    }
+
+    // the same run as simulate without the event queue: every task is timed
+    // once all it waits for is timed, so the trace is the same but has no
+    // event count; for the many runs of one schedule in a Monte Carlo study
+    public ExecutionTrace replay(float[] lengths, float[] dataSizes){
+        return replay(lengths, dataSizes, null);
+    }
+
+    // replay into the trace of an earlier replay of this simulator, which is
+    // overwritten, so runs of many replicas allocate nothing per replica;
+    // a new trace if it is null
+    public ExecutionTrace replay(float[] lengths, float[] dataSizes, ExecutionTrace trace){
+        if(executionOrder == null){
+            executionOrder = computeExecutionOrder();
+        }
+        int[] predecessorOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        if(trace == null){
+            trace = new ExecutionTrace(graph, vms, vmSlots, lengths);
+        }
+        else if(!trace.isOf(vms)){
+            throw new IllegalArgumentException("The trace is of another schedule");
+        }
+        else {
+            trace.reset(lengths);
+        }
+        float[] startTimes = trace.getStartTimes();
+        float[] finishTimes = trace.getFinishTimes();
+        float[] launchTimes = trace.getLaunchTimes();
+        for(int i : executionOrder){
+            int v = vmSlots[i];
+            float ready = 0.0f;
+            for(int e = predecessorOffsets[i]; e < predecessorOffsets[i + 1]; e++){
+                int p = predecessors[e];
+                float tt = (vmSlots[p] == v)? 0.0f: dataSizes[e] / DataCenter.BANDWIDTH;
+                ready = Math.max(ready, finishTimes[p] + tt);
+            }
+            if(previousTasks[i] >= 0){
+                ready = Math.max(ready, finishTimes[previousTasks[i]]);
+            }
+            else {
+                launchTimes[v] = ready;
+                ready += vmBootTime;
+            }
+            startTimes[i] = ready;
+            finishTimes[i] = ready + lengths[i] / processingSpeeds[v];
+        }
+        trace.complete(0);
+        return trace;
+    }
+
+    // Kahn's algorithm over the edges of the workflow and the task order of the VMs
+    private int[] computeExecutionOrder(){
+        int n = graph.size();
+        int[] successorOffsets = graph.getSuccessorOffsets();
+        int[] inDegree = new int[n];
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for(int i = 0; i < n; i++){
+            inDegree[i] = graph.getPredecessorCount(i) + ((previousTasks[i] >= 0)? 1: 0);
+            if(inDegree[i] == 0){
+                order[tail++] = i;
+            }
+        }
+        while(head < tail){
+            int i = order[head++];
+            for(int k = successorOffsets[i]; k < successorOffsets[i + 1]; k++){
+                int s = edgeTargets[outgoingEdges[k]];
+                if(--inDegree[s] == 0){
+                    order[tail++] = s;
+                }
+            }
+            if(nextTasks[i] >= 0 && --inDegree[nextTasks[i]] == 0){
+                order[tail++] = nextTasks[i];
+            }
+        }
+        if(tail != n){
+            throw new IllegalStateException((n - tail) + " tasks wait for each other in the schedule");
+        }
+        return order;
+    }
+
+    // one input of a task has arrived at the time
+    private void release(int i, float time){
+        readyTimes[i] = Math.max(readyTimes[i], time);
+        pendingInputs[i] -= 1;
+        if(pendingInputs[i] == 0){
+            events.push(readyTimes[i], EventQueue.TASK_START, i);
+        }
+        else if(pendingInputs[i] == 1 && firstTasks[vmSlots[i]] == i){
+            // only the VM is missing
+            events.push(readyTimes[i], EventQueue.VM_LAUNCH, vmSlots[i]);
+        }
+    }
+
+    public float getVmBootTime() {
+        return vmBootTime;
+    }
+
+    public void setVmBootTime(float vmBootTime) {
+        this.vmBootTime = vmBootTime;
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.Vm;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+// what one run of an ExecutionSimulator produced: when each task started and
+// finished on which VM, when each VM was launched and how busy it was, and
+// the makespan, cost and energy consumption of the run
+public class ExecutionTrace {
+
+    private WorkflowGraph graph;
+
+    // VM slots as in the simulator
+    private Vm[] vms;
+
+    private int[] vmSlots;
+
+    // the task lengths of the run, indexed by Task.getIndex()
+    private float[] lengths;
+
+    private float[] startTimes;
+
+    private float[] finishTimes;
+
+    // indexed by VM slot
+    private float[] launchTimes;
+
+    private float[] busyTimes;
+
+    private float[] lastFinishTimes;
+
+    private float makespan;
+
+    private float cost;
+
+    private float energyConsumption;
+
+    private long eventCount;
+
+    ExecutionTrace(WorkflowGraph graph, Vm[] vms, int[] vmSlots, float[] lengths){
+        this.graph = graph;
+        this.vms = vms;
+        this.vmSlots = vmSlots;
+        this.lengths = lengths;
+        this.startTimes = new float[graph.size()];
+        this.finishTimes = new float[graph.size()];
+        this.launchTimes = new float[vms.length];
+        this.busyTimes = new float[vms.length];
+        this.lastFinishTimes = new float[vms.length];
+    }
+
+    // to clear the results of a run before the next run over the same VMs,
+    // with the given task lengths
+    void reset(float[] lengths){
+        this.lengths = lengths;
+        this.makespan = 0.0f;
+        this.cost = 0.0f;
+        this.energyConsumption = 0.0f;
+        this.eventCount = 0;
+        Arrays.fill(busyTimes, 0.0f);
+        Arrays.fill(lastFinishTimes, 0.0f);
+    }
+
+    boolean isOf(Vm[] vms){
+        return this.vms == vms;
+    }
+
+    // makespan by equation-(19), cost by equation-(10) and energy consumption
+    // by equation-(8), summed in task order as the workflow does
+    void complete(long eventCount){
+        this.eventCount = eventCount;
+        for(int i = 0; i < graph.size(); i++){
+            Vm v = vms[vmSlots[i]];
+            float et = lengths[i] / v.getProcessingSpeed();
+            if(graph.getSuccessorCount(i) == 0){
+                makespan = Math.max(makespan, finishTimes[i]);
+            }
+            cost += ((float) Math.ceil(et)) * v.getType().getCostPerSecond();
+            energyConsumption += v.powerConsumption() * et;
+            busyTimes[vmSlots[i]] += finishTimes[i] - startTimes[i];
+            lastFinishTimes[vmSlots[i]] = Math.max(lastFinishTimes[vmSlots[i]], finishTimes[i]);
+        }
+    }
+
+    public float getStartTime(Task task){
+        return startTimes[task.getIndex()];
+    }
+
+    public float getFinishTime(Task task){
+        return finishTimes[task.getIndex()];
+    }
+
+    public Vm getVm(Task task){
+        return vms[vmSlots[task.getIndex()]];
+    }
+
+    public int getVmCount(){
+        return vms.length;
+    }
+
+    public Vm getVm(int slot){
+        return vms[slot];
+    }
+
+    public float getLaunchTime(int slot){
+        return launchTimes[slot];
+    }
+
+    // seconds the VM ran tasks
+    public float getBusyTime(int slot){
+        return busyTimes[slot];
+    }
+
+    // share of the time from its launch to its last task the VM ran tasks
+    public float getUtilization(int slot){
+        float leased = lastFinishTimes[slot] - launchTimes[slot];
+        return (leased > 0.0f)? busyTimes[slot] / leased: 1.0f;
+    }
+
+    // the same over all VMs together
+    public float getUtilization(){
+        float busy = 0.0f, leased = 0.0f;
+        for(int v = 0; v < vms.length; v++){
+            busy += busyTimes[v];
+            leased += lastFinishTimes[v] - launchTimes[v];
+        }
+        return (leased > 0.0f)? busy / leased: 1.0f;
+    }
+
+    public float getMakespan() {
+        return makespan;
+    }
+
+    public float getCost() {
+        return cost;
+    }
+
+    public float getEnergyConsumption() {
+        return energyConsumption;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    float[] getStartTimes() {
+        return startTimes;
+    }
+
+    float[] getFinishTimes() {
+        return finishTimes;
+    }
+
+    float[] getLaunchTimes() {
+        return launchTimes;
+    }
+
+    // the timeline of every task, in task order
+    public void writeTimeline(File file) throws IOException {
+        try(BufferedWriter bw = new BufferedWriter(new FileWriter(file))){
+            bw.write("Task,Name,VM,VM type,Start,Finish");
+            for(int i = 0; i < graph.size(); i++){
+                Task ti = graph.getTask(i);
+                Vm v = vms[vmSlots[i]];
+                bw.newLine();
+                bw.write(ti.getId() + "," + ti.getName() + "," + v.getId() + "," + v.getType().getId() + ","
+                        + startTimes[i] + "," + finishTimes[i]);
+            }
+        }
+    }
+
+    // the use of every VM, in ascending order of VM ids
+    public void writeVmUtilization(File file) throws IOException {
+        try(BufferedWriter bw = new BufferedWriter(new FileWriter(file))){
+            bw.write("VM,VM type,Launch,Last finish,Busy,Utilization");
+            for(int v = 0; v < vms.length; v++){
+                bw.newLine();
+                bw.write(vms[v].getId() + "," + vms[v].getType().getId() + "," + launchTimes[v] + ","
+                        + lastFinishTimes[v] + "," + busyTimes[v] + "," + getUtilization(v));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("makespan %.2f s, cost %.6f, energy %.2f, %d VMs at %.1f%% utilization, %d events",
+                makespan, cost, energyConsumption, vms.length, 100.0f * getUtilization(), eventCount);
+    }
+
+}
@@ -8,11 +8,19 @@ public class FileItem {
     // size of file in MB
     private float size;
 
+    // task that produces the file, for output files
+    private Task producer;
+
     public FileItem(String name, float size) {
         this.name = name;
         this.size = size;
     }
 
+    public FileItem(String name, float size, Task producer) {
+        this(name, size);
+        this.producer = producer;
+    }
+
     public String getName() {
         return name;
     }
@@ -29,6 +37,14 @@ public class FileItem {
         this.size = size;
     }
 
+    public Task getProducer() {
+        return producer;
+    }
+
+    public void setProducer(Task producer) {
+        this.producer = producer;
+    }
+
     @Override
     public String toString() {
         return "FileItem{" +
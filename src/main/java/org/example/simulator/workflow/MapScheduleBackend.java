@@ -0,0 +1,110 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.Vm;
+
+import java.util.*;
+
+// general purpose backend: a list of tasks per VM object,
+// with array indices from tasks back to their VM and slot
+class MapScheduleBackend implements ScheduleBackend {
+
+    private Map<Vm,List<Task>> assignment;
+
+    // reverse index: VM of each task, indexed by Task.getIndex()
+    private Vm[] assignedVms;
+
+    // slot of each task in the task list of its VM, indexed by Task.getIndex()
+    private int[] positions;
+
+    MapScheduleBackend(int capacity){
+        this.assignment = new HashMap<>();
+        this.assignedVms = new Vm[capacity];
+        this.positions = new int[capacity];
+    }
+
+    @Override
+    public Vm getVm(int taskIndex){
+        return (taskIndex < assignedVms.length)? assignedVms[taskIndex]: null;
+    }
+
+    @Override
+    public int getPosition(int taskIndex){
+        return positions[taskIndex];
+    }
+
+    @Override
+    public Task getTask(Vm vm, int position){
+        return this.assignment.get(vm).get(position);
+    }
+
+    @Override
+    public int size(Vm vm){
+        List<Task> tasks = this.assignment.get(vm);
+        return (tasks == null)? 0: tasks.size();
+    }
+
+    @Override
+    public int append(Task task, Vm vm){
+        int position = size(vm);
+        insert(task, vm, position);
+        return position;
+    }
+
+    @Override
+    public void insert(Task task, Vm vm, int position){
+        if(!assignment.containsKey(vm)){
+            assignment.put(vm, new ArrayList<>());
+        }
+        List<Task> tasks = assignment.get(vm);
+        int idx = task.getIndex();
+        if(idx >= assignedVms.length){
+            int length = Math.max(idx + 1, 2 * assignedVms.length);
+            assignedVms = Arrays.copyOf(assignedVms, length);
+            positions = Arrays.copyOf(positions, length);
+        }
+        assignedVms[idx] = vm;
+        tasks.add(position, task);
+
+        // shift the tasks scheduled after the inserted one
+        for(int k = position; k < tasks.size(); k++){
+            positions[tasks.get(k).getIndex()] = k;
+        }
+    }
+
+    @Override
+    public void remove(Task task, Vm vm, int position){
+        List<Task> tasks = this.assignment.get(vm);
+        tasks.remove(position);
+        assignedVms[task.getIndex()] = null;
+
+        // shift the tasks scheduled after the removed one
+        for(int k = position; k < tasks.size(); k++){
+            positions[tasks.get(k).getIndex()] = k;
+        }
+    }
+
+    @Override
+    public boolean hasVm(Vm vm){
+        return this.assignment.containsKey(vm);
+    }
+
+    @Override
+    public void removeVm(Vm vm){
+        this.assignment.remove(vm);
+    }
+
+    @Override
+    public List<Task> getTasks(Vm vm){
+        return this.assignment.get(vm);
+    }
+
+    @Override
+    public Collection<Vm> getVms(){
+        return this.assignment.keySet();
+    }
+
+    Map<Vm, List<Task>> getAssignment(){
+        return assignment;
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.VmCatalog;
+import org.example.simulator.vm.VmType;
+
+// Modified ESDWB: every task gets beta of the spread between its own minimum
+// and maximum cost on top of the minimum, whatever the tasks before it spent;
+// the fast enough VM types are tried fastest first, and the fallback is the
+// slowest type within the budget
+public class ModifiedESDWBScheduler extends AbstractESDWBScheduler {
+
+    @Override
+    public String getName() {
+        return "Modified-ESDWB";
+    }
+
+    @Override
+    protected float initialSurplusBudget(Workflow workflow, float beta) {
+        return 0.0f;
+    }
+
+    @Override
+    protected float taskBudget(ExecutionMatrix matrix, Task t, float surplusBudget, float beta) {
+        return matrix.modifiedBudget(t, beta);
+    }
+
+    // what is left of the budget of the task
+    @Override
+    protected float budgetUpdate(ExecutionMatrix matrix, Task t, VmType tau, float taskBudget) {
+        return taskBudget - matrix.cost(t, tau);
+    }
+
+    @Override
+    protected float surplusBudgetAfter(float surplusBudget, float update) {
+        return update;
+    }
+
+    @Override
+    protected VmType candidateVmType(VmCatalog catalog, int fastEnough, int k) {
+        return catalog.getBySpeedDescending(k);
+    }
+
+    @Override
+    protected VmType fallbackVmType(VmCatalog catalog, float length, float taskBudget) {
+        return catalog.slowestWithinBudget(length, taskBudget);
+    }
+
+}
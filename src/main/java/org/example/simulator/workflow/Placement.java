@@ -0,0 +1,8 @@
+package org.example.simulator.workflow;
+
+// where a scheduler places a task on the VM it picked:
+// after the last task of the VM, or in the earliest idle gap it fits in
+public enum Placement {
+    APPEND,
+    INSERTION
+}
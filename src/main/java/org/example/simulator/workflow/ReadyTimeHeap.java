@@ -0,0 +1,148 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.Vm;
+
+import java.util.Arrays;
+
+// binary min-heap of VMs keyed by their ready time, i.e. the actual finish
+// time of their last task; ties go to the VM with the smaller id, and the
+// heap slot of every VM is indexed by Vm.getId() so keys can be updated in place
+class ReadyTimeHeap {
+
+    private Vm[] vms;
+
+    private float[] readyTimes;
+
+    private int size;
+
+    // slot of each VM in the heap, -1 if it is not in the heap
+    private int[] heapPositions;
+
+    ReadyTimeHeap(){
+        this.vms = new Vm[16];
+        this.readyTimes = new float[16];
+        this.heapPositions = new int[16];
+        Arrays.fill(this.heapPositions, -1);
+    }
+
+    boolean isEmpty(){
+        return size == 0;
+    }
+
+    int size(){
+        return size;
+    }
+
+    // VM in a heap slot, for scanning all VMs of the heap
+    Vm get(int k){
+        return vms[k];
+    }
+
+    boolean contains(Vm vm){
+        int id = vm.getId();
+        return id < heapPositions.length && heapPositions[id] >= 0;
+    }
+
+    // ready time of a VM in the heap
+    float getReadyTime(Vm vm){
+        return readyTimes[heapPositions[vm.getId()]];
+    }
+
+    Vm peek(){
+        return vms[0];
+    }
+
+    float peekReadyTime(){
+        return readyTimes[0];
+    }
+
+    // to insert a VM or change its ready time
+    void update(Vm vm, float readyTime){
+        int id = vm.getId();
+        if(id >= heapPositions.length){
+            int length = Math.max(id + 1, 2 * heapPositions.length);
+            int oldLength = heapPositions.length;
+            heapPositions = Arrays.copyOf(heapPositions, length);
+            Arrays.fill(heapPositions, oldLength, length, -1);
+        }
+        int k = heapPositions[id];
+        if(k < 0){
+            if(size == vms.length){
+                vms = Arrays.copyOf(vms, 2 * size);
+                readyTimes = Arrays.copyOf(readyTimes, 2 * size);
+            }
+            k = size++;
+        }
+        vms[k] = vm;
+        readyTimes[k] = readyTime;
+        heapPositions[id] = k;
+        siftDown(siftUp(k));
+    }
+
+    void remove(Vm vm){
+        int id = vm.getId();
+        if(id >= heapPositions.length || heapPositions[id] < 0){
+            return;
+        }
+        int k = heapPositions[id];
+        heapPositions[id] = -1;
+        size--;
+        if(k != size){
+            move(size, k);
+            siftDown(siftUp(k));
+        }
+        vms[size] = null;
+    }
+
+    private int siftUp(int k){
+        while(k > 0){
+            int parent = (k - 1) / 2;
+            if(!less(k, parent)){
+                break;
+            }
+            swap(k, parent);
+            k = parent;
+        }
+        return k;
+    }
+
+    private void siftDown(int k){
+        while(true){
+            int child = 2 * k + 1;
+            if(child >= size){
+                return;
+            }
+            if(child + 1 < size && less(child + 1, child)){
+                child++;
+            }
+            if(!less(child, k)){
+                return;
+            }
+            swap(k, child);
+            k = child;
+        }
+    }
+
+    private boolean less(int i, int j){
+        if(readyTimes[i] != readyTimes[j]){
+            return readyTimes[i] < readyTimes[j];
+        }
+        return vms[i].getId() < vms[j].getId();
+    }
+
+    private void swap(int i, int j){
+        Vm vm = vms[i];
+        float readyTime = readyTimes[i];
+        move(j, i);
+        vms[j] = vm;
+        readyTimes[j] = readyTime;
+        heapPositions[vm.getId()] = j;
+    }
+
+    private void move(int from, int to){
+        vms[to] = vms[from];
+        readyTimes[to] = readyTimes[from];
+        heapPositions[vms[to].getId()] = to;
+    }
+
+}
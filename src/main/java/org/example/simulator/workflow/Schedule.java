@@ -1,6 +1,7 @@
 package org.example.simulator.workflow;
 
 import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmType;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -16,66 +17,630 @@ public class Schedule {
 
     private int workflowSize;
 
-    private Map<Vm,List<Task>> assignment;
+    // task-to-VM assignment and the task order on each VM
+    private ScheduleBackend backend;
+
+    // the DAG of the workflow in compressed sparse rows, if the schedule
+    // was built for one; the task lists are used otherwise
+    private WorkflowGraph graph;
+
+    // cached actual start times, indexed by Task.getIndex();
+    // a task is timed only while all the tasks it waits for are timed
+    private float[] actualStartTimes;
+
+    private byte[] timingStates;
+
+    private static final byte STALE = 0, IN_PROGRESS = 1, TIMED = 2;
+
+    // helper DS for the depth-first timing and invalidation walks
+    private Deque<Task> timingStack;
+
+    private int[] timingCursors;
+
+    // undo log of the trial placements made since the last commit/rollback:
+    // each placement with the VM it added to the schedule (null if the VM was
+    // there already), the earlier timing of every task whose cached timing
+    // changed, the changes to the VM timelines and to the ready-time heaps,
+    // and the VMs whose ready times were stale before the first placement
+    private List<Task> trialTasks;
+
+    private List<Vm> trialAddedVms;
+
+    private int[] trialTimingIndices;
+
+    private float[] trialStartTimes;
+
+    private byte[] trialTimingStates;
+
+    private int trialTimingCount;
+
+    private List<Vm> trialTimelineVms;
+
+    // the timeline a VM had before the change, and the gap a split started
+    // from, or -1 if the timeline of the VM was replaced or dropped
+    private List<VmTimeline> trialTimelines;
+
+    private int[] trialTimelineSlots;
+
+    private List<Vm> trialHeapVms;
+
+    // the ready time a VM had in the heap of its type, NaN if it had none
+    private float[] trialReadyTimes;
+
+    private List<Vm> trialStaleReadyTimes;
+
+    // reused result buffer of evaluateFinishTimes
+    private float[] candidateFinishTimes;
+
+    // VMs of each VM type id, keyed by the actual finish time of their last task
+    private Map<Integer,ReadyTimeHeap> readyTimeHeaps;
+
+    // VMs whose last task changed since their ready time was last read
+    private List<Vm> staleReadyTimes;
+
+    // idle gaps of the VMs, built from the cached timings on first use
+    // and dropped as soon as the timing of one of their tasks is dropped
+    private Map<Vm,VmTimeline> timelines;
 
     public Schedule(String algorithmName){
         this.algorithmName = algorithmName;
-        this.assignment = new HashMap<>();
+        this.backend = new MapScheduleBackend(16);
+        this.initializeIndex(16);
     }
 
     public Schedule(String algorithmName, String workflowName, int workflowSize){
+        this(algorithmName, workflowName, workflowSize, new MapScheduleBackend(Math.max(workflowSize, 16)));
+    }
+
+    Schedule(String algorithmName, String workflowName, WorkflowGraph graph, ScheduleBackend backend){
+        this(algorithmName, workflowName, graph.size(), backend);
+        this.graph = graph;
+    }
+
+    Schedule(String algorithmName, String workflowName, int workflowSize, ScheduleBackend backend){
         this.algorithmName = algorithmName;
         this.workflowName = workflowName;
         this.workflowSize = workflowSize;
-        this.assignment = new HashMap<>();
+        this.backend = backend;
+        this.initializeIndex(Math.max(workflowSize, 16));
+    }
+
+    private void initializeIndex(int capacity){
+        this.actualStartTimes = new float[capacity];
+        this.timingStates = new byte[capacity];
+        this.timingCursors = new int[capacity];
+        this.timingStack = new ArrayDeque<>();
+        this.trialTasks = new ArrayList<>();
+        this.trialAddedVms = new ArrayList<>();
+        this.trialTimingIndices = new int[16];
+        this.trialStartTimes = new float[16];
+        this.trialTimingStates = new byte[16];
+        this.trialTimelineVms = new ArrayList<>();
+        this.trialTimelines = new ArrayList<>();
+        this.trialTimelineSlots = new int[16];
+        this.trialHeapVms = new ArrayList<>();
+        this.trialReadyTimes = new float[16];
+        this.trialStaleReadyTimes = new ArrayList<>();
+        this.candidateFinishTimes = new float[16];
+        this.readyTimeHeaps = new HashMap<>();
+        this.staleReadyTimes = new ArrayList<>();
+        this.timelines = new HashMap<>();
+    }
+
+    private void ensureCapacity(int idx){
+        if(idx >= actualStartTimes.length){
+            int length = Math.max(idx + 1, 2 * actualStartTimes.length);
+            actualStartTimes = Arrays.copyOf(actualStartTimes, length);
+            timingStates = Arrays.copyOf(timingStates, length);
+            timingCursors = Arrays.copyOf(timingCursors, length);
+        }
     }
 
     public void assign(Task task, Vm vm){
-        if(!assignment.containsKey(vm)){
-            assignment.put(vm, new ArrayList<>());
+        ensureCapacity(task.getIndex());
+        backend.append(task, vm);
+
+        // the task is appended, so only the task itself and
+        // its already placed successors need new timings
+        invalidate(task);
+    }
+
+    // to place a not yet assigned task either at the end of a VM
+    // or in the earliest idle gap of the VM it fits in
+    public void assign(Task task, Vm vm, Placement placement){
+        if(placement == Placement.INSERTION){
+            assignIntoGap(task, vm);
+        }
+        else {
+            assign(task, vm);
+        }
+    }
+
+    // to insert a not yet assigned task in the earliest gap of a VM where it
+    // finishes before the next task on the VM has to start, so the tasks
+    // already on the VM keep their timings; the last gap is always long enough
+    public void assignIntoGap(Task task, Vm vm){
+        int idx = task.getIndex();
+        float pst = possibleStartTime(task, vm);
+        float et = task.executionTime(vm);
+        VmTimeline timeline = timelineOf(vm);
+        int slot = timeline.findSlot(pst, et);
+        float ast = Math.max(pst, timeline.gapStart(slot));
+        boolean last = (slot == timeline.size() - 1);
+        ensureCapacity(idx);
+        backend.insert(task, vm, slot);
+
+        boolean waitedFor = false;
+        for(int k = 0; k < successorCount(task); k++){
+            waitedFor |= (getAssignedVm(successor(task, k)) != null);
+        }
+        if(waitedFor){
+            invalidate(task);
+            return;
+        }
+
+        // nothing assigned waits for the task, and the next task on the VM
+        // still starts at the same time, so only the task itself is timed
+        logTiming(idx);
+        actualStartTimes[idx] = ast;
+        timingStates[idx] = TIMED;
+        logTimeline(vm, timeline, slot);
+        timeline.split(slot, ast, ast + et);
+        if(last){
+            staleReadyTimes.add(vm);
         }
-        assignment.get(vm).add(task);
     }
 
     public void dismiss(Task task, Vm vm){
-        this.assignment.get(vm).remove(task);
+        int pos = positionOf(task, vm);
+        if(pos < 0){
+            return;
+        }
+        invalidate(task);
+        backend.remove(task, vm, pos);
+        staleReadyTimes.add(vm);
+    }
+
+    // to place a not yet assigned task on a VM tentatively, as assign does;
+    // the placement is undone by rollback unless commit is called first
+    public void tryAssign(Task task, Vm vm, Placement placement){
+        if(trialTasks.isEmpty()){
+            trialStaleReadyTimes.addAll(staleReadyTimes);
+        }
+        trialTasks.add(task);
+        trialAddedVms.add(backend.hasVm(vm)? null: vm);
+        assign(task, vm, placement);
+    }
+
+    // to keep all trial placements made since the last commit/rollback
+    public void commit(){
+        trialTasks.clear();
+        trialAddedVms.clear();
+        trialTimingCount = 0;
+        trialTimelineVms.clear();
+        trialTimelines.clear();
+        trialHeapVms.clear();
+        trialStaleReadyTimes.clear();
+    }
+
+    // to undo all trial placements made since the last commit/rollback, so the
+    // schedule is exactly as before the first one: the placements latest first,
+    // then the cached timings, timelines and ready times they changed
+    public void rollback(){
+        if(trialTasks.isEmpty()){
+            return;
+        }
+        for(int k = trialTasks.size() - 1; k >= 0; k--){
+            Task task = trialTasks.get(k);
+            Vm vm = backend.getVm(task.getIndex());
+            backend.remove(task, vm, backend.getPosition(task.getIndex()));
+            if(trialAddedVms.get(k) != null){
+                backend.removeVm(vm);
+            }
+        }
+        for(int k = trialTimingCount - 1; k >= 0; k--){
+            int idx = trialTimingIndices[k];
+            actualStartTimes[idx] = trialStartTimes[k];
+            timingStates[idx] = trialTimingStates[k];
+        }
+        for(int k = trialTimelineVms.size() - 1; k >= 0; k--){
+            Vm vm = trialTimelineVms.get(k);
+            VmTimeline timeline = trialTimelines.get(k);
+            if(trialTimelineSlots[k] >= 0){
+                timeline.join(trialTimelineSlots[k]);
+            }
+            else if(timeline == null){
+                timelines.remove(vm);
+            }
+            else {
+                timelines.put(vm, timeline);
+            }
+        }
+        for(int k = trialHeapVms.size() - 1; k >= 0; k--){
+            Vm vm = trialHeapVms.get(k);
+            ReadyTimeHeap heap = readyTimeHeaps.get(vm.getType().getId());
+            if(Float.isNaN(trialReadyTimes[k])){
+                heap.remove(vm);
+            }
+            else {
+                heap.update(vm, trialReadyTimes[k]);
+            }
+        }
+        staleReadyTimes.clear();
+        staleReadyTimes.addAll(trialStaleReadyTimes);
+        commit();
+    }
+
+    // to record the cached timing of a task before a trial placement changes it
+    private void logTiming(int idx){
+        if(trialTasks.isEmpty()){
+            return;
+        }
+        if(trialTimingCount == trialTimingIndices.length){
+            trialTimingIndices = Arrays.copyOf(trialTimingIndices, 2 * trialTimingCount);
+            trialStartTimes = Arrays.copyOf(trialStartTimes, 2 * trialTimingCount);
+            trialTimingStates = Arrays.copyOf(trialTimingStates, 2 * trialTimingCount);
+        }
+        trialTimingIndices[trialTimingCount] = idx;
+        trialStartTimes[trialTimingCount] = actualStartTimes[idx];
+        trialTimingStates[trialTimingCount] = timingStates[idx];
+        trialTimingCount++;
+    }
+
+    // to record the timeline of a VM before a trial placement replaces or
+    // drops it (slot -1) or splits one of its gaps
+    private void logTimeline(Vm vm, VmTimeline timeline, int slot){
+        if(trialTasks.isEmpty()){
+            return;
+        }
+        int k = trialTimelineVms.size();
+        if(k == trialTimelineSlots.length){
+            trialTimelineSlots = Arrays.copyOf(trialTimelineSlots, 2 * k);
+        }
+        trialTimelineVms.add(vm);
+        trialTimelines.add(timeline);
+        trialTimelineSlots[k] = slot;
+    }
+
+    // to record the ready time of a VM before a trial placement changes it
+    private void logReadyTime(Vm vm, ReadyTimeHeap heap){
+        if(trialTasks.isEmpty()){
+            return;
+        }
+        int k = trialHeapVms.size();
+        if(k == trialReadyTimes.length){
+            trialReadyTimes = Arrays.copyOf(trialReadyTimes, 2 * k);
+        }
+        trialHeapVms.add(vm);
+        trialReadyTimes[k] = heap.contains(vm)? heap.getReadyTime(vm): Float.NaN;
+    }
+
+    // slot of a task on a VM, or -1 if it is not assigned to that VM
+    private int positionOf(Task task, Vm vm){
+        int idx = task.getIndex();
+        if(backend.getVm(idx) != vm){
+            return -1;
+        }
+        return backend.getPosition(idx);
     }
 
     public Vm getAssignedVm(Task task){
-       return this.assignment.entrySet().stream()
-                .filter((e) -> e.getValue().contains(task))
-                .map((e) -> e.getKey())
-                .findFirst().orElse(null);
+        return backend.getVm(task.getIndex());
+    }
+
+    public Vm getAssignedVm(int taskIndex){
+        return backend.getVm(taskIndex);
+    }
+
+    // the predecessors and successors of a task and the transfer times from its
+    // predecessors, read from the CSR graph when the schedule has one
+
+    private int predecessorCount(Task task){
+        return (graph != null)? graph.getPredecessorCount(task.getIndex()): task.getPredecessors().size();
+    }
+
+    private Task predecessor(Task task, int k){
+        if(graph != null){
+            return graph.getTask(graph.getPredecessors()[graph.getPredecessorOffsets()[task.getIndex()] + k]);
+        }
+        return task.getPredecessors().get(k);
+    }
+
+    private float transferTime(Task task, int k, Task tp, Vm v, Vm v_tp){
+        if(graph != null){
+            float dataSize = graph.getPredecessorDataSizes()[graph.getPredecessorOffsets()[task.getIndex()] + k];
+            return WorkflowGraph.transferTime(dataSize, v, v_tp);
+        }
+        return task.transferTime(v, tp, v_tp);
+    }
+
+    private int successorCount(Task task){
+        return (graph != null)? graph.getSuccessorCount(task.getIndex()): task.getSuccessors().size();
+    }
+
+    private Task successor(Task task, int k){
+        if(graph != null){
+            return graph.getTask(graph.getSuccessors()[graph.getSuccessorOffsets()[task.getIndex()] + k]);
+        }
+        return task.getSuccessors().get(k);
+    }
+
+    // actual finish time the task would have if it were appended to the VM,
+    // from equations-(16) to (18), without changing the schedule
+    public float evaluateFinishTime(Task task, Vm vm){
+        float pst = possibleStartTime(task, vm);
+        int size = backend.size(vm);
+        if(size > 0){
+            pst = Math.max(pst, actualFinishTime(backend.getTask(vm, size - 1)));
+        }
+        return pst + task.executionTime(vm);
+    }
+
+    // actual finish time the task would have if it were inserted into
+    // the VM by assignIntoGap, without changing the schedule
+    public float evaluateGapFinishTime(Task task, Vm vm){
+        float pst = possibleStartTime(task, vm);
+        float et = task.executionTime(vm);
+        VmTimeline timeline = timelineOf(vm);
+        int slot = timeline.findSlot(pst, et);
+        return Math.max(pst, timeline.gapStart(slot)) + et;
+    }
+
+    // the start time the task would have on the VM from its predecessors
+    // alone, from equation-(16) with the cached actual start times
+    private float possibleStartTime(Task task, Vm vm){
+        float pst = 0.0f;
+        for(int k = 0; k < predecessorCount(task); k++){
+            Task tp = predecessor(task, k);
+            Vm v_tp = getAssignedVm(tp);
+            float ast = actualStartTime(tp);
+            float et = tp.executionTime(v_tp);
+            float tt = transferTime(task, k, tp, vm, v_tp);
+            pst = Math.max(pst, ast + et + tt);
+        }
+        return pst;
+    }
+
+    // evaluateFinishTime for several candidate VMs of one task; the returned
+    // buffer is reused by the next call, entry k belongs to candidate k
+    public float[] evaluateFinishTimes(Task task, List<Vm> candidates){
+        return evaluateFinishTimes(task, candidates, Placement.APPEND);
+    }
+
+    // evaluateFinishTimes for the given placement of the task
+    public float[] evaluateFinishTimes(Task task, List<Vm> candidates, Placement placement){
+        if(candidates.size() > candidateFinishTimes.length){
+            candidateFinishTimes = new float[Math.max(candidates.size(), 2 * candidateFinishTimes.length)];
+        }
+        for(int k = 0; k < candidates.size(); k++){
+            Vm vm = candidates.get(k);
+            candidateFinishTimes[k] = (placement == Placement.INSERTION)?
+                    evaluateGapFinishTime(task, vm): evaluateFinishTime(task, vm);
+        }
+        return candidateFinishTimes;
+    }
+
+    // a VM of the given type whose last task finishes before the given time,
+    // the one that becomes ready earliest, or null if there is none
+    public Vm findIdleVm(VmType vmType, float startTime){
+        refreshReadyTimes();
+        ReadyTimeHeap heap = readyTimeHeaps.get(vmType.getId());
+        if(heap == null || heap.isEmpty() || heap.peekReadyTime() >= startTime){
+            return null;
+        }
+        return heap.peek();
+    }
+
+    // a VM of the given type that is idle at the given time long enough to run
+    // the task there: an idle VM if there is one, otherwise a VM with a gap
+    // between two of its tasks that starts before the time and holds the task;
+    // the VMs are scanned in heap order, but one whose longest gap is too short
+    // for the task is passed over without searching its timeline
+    public Vm findVmWithGap(VmType vmType, Task task, float startTime){
+        Vm vm = findIdleVm(vmType, startTime);
+        if(vm != null){
+            return vm;
+        }
+        ReadyTimeHeap heap = readyTimeHeaps.get(vmType.getId());
+        if(heap == null){
+            return null;
+        }
+        for(int k = 0; k < heap.size(); k++){
+            Vm candidate = heap.get(k);
+            VmTimeline timeline = timelineOf(candidate);
+            float et = task.executionTime(candidate);
+            if(timeline.longestGap() >= et && timeline.findSlotStartingAt(startTime, et) >= 0){
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private VmTimeline timelineOf(Vm vm){
+        VmTimeline timeline = timelines.get(vm);
+        if(timeline == null){
+            int size = backend.hasVm(vm)? backend.size(vm): 0;
+            float[] startTimes = new float[size];
+            float[] finishTimes = new float[size];
+            for(int k = 0; k < size; k++){
+                Task tk = backend.getTask(vm, k);
+                startTimes[k] = actualStartTime(tk);
+                finishTimes[k] = startTimes[k] + tk.executionTime(vm);
+            }
+            timeline = new VmTimeline(startTimes, finishTimes, size);
+            logTimeline(vm, null, -1);
+            timelines.put(vm, timeline);
+        }
+        return timeline;
+    }
+
+    // to re-key the VMs whose last task changed in the heap of their type
+    private void refreshReadyTimes(){
+        for(Vm vm : staleReadyTimes){
+            ReadyTimeHeap heap = readyTimeHeaps.computeIfAbsent(vm.getType().getId(), (id) -> new ReadyTimeHeap());
+            int size = backend.hasVm(vm)? backend.size(vm): 0;
+            logReadyTime(vm, heap);
+            if(size == 0){
+                heap.remove(vm);
+            }
+            else {
+                heap.update(vm, actualFinishTime(backend.getTask(vm, size - 1)));
+            }
+        }
+        staleReadyTimes.clear();
+    }
+
+    // from equations-(16) and (17), computed once per assigned task and
+    // reused until the task or one of the tasks it waits for changes
+    public float actualStartTime(Task task){
+        int idx = task.getIndex();
+        if(timingStates[idx] != TIMED){
+            computeActualStartTimes(task);
+        }
+        return actualStartTimes[idx];
+    }
+
+    // from equation-(18)
+    public float actualFinishTime(Task task){
+        return actualStartTime(task) + task.executionTime(backend.getVm(task.getIndex()));
+    }
+
+    // to drop the cached timings of the tasks on a VM whose
+    // processing speed has changed, and of everything waiting on them
+    public void invalidate(Vm vm){
+        for(int k = 0; k < backend.size(vm); k++){
+            invalidate(backend.getTask(vm, k));
+        }
+    }
+
+    // to drop the cached timing of a task and of every assigned task
+    // that waits for it, either as a successor or as the next task on its VM
+    private void invalidate(Task task){
+        timingStack.push(task);
+        while(!timingStack.isEmpty()){
+            Task ti = timingStack.pop();
+            int idx = ti.getIndex();
+            if(ti != task && timingStates[idx] == STALE){
+                continue;
+            }
+            logTiming(idx);
+            timingStates[idx] = STALE;
+            for(int k = 0; k < successorCount(ti); k++){
+                Task ts = successor(ti, k);
+                if(getAssignedVm(ts) != null){
+                    timingStack.push(ts);
+                }
+            }
+            Vm v = backend.getVm(idx);
+            if(v != null){
+                if(!timelines.isEmpty()){
+                    VmTimeline timeline = timelines.remove(v);
+                    if(timeline != null){
+                        logTimeline(v, timeline, -1);
+                    }
+                }
+                int pos = backend.getPosition(idx);
+                if(pos + 1 < backend.size(v)){
+                    timingStack.push(backend.getTask(v, pos + 1));
+                }
+                else {
+                    staleReadyTimes.add(v);
+                }
+            }
+        }
+    }
+
+    // depth-first walk over the predecessors and previous VM slots of a task,
+    // timing each one after everything it waits for has been timed
+    private void computeActualStartTimes(Task task){
+        begin(task);
+        while(!timingStack.isEmpty()){
+            Task ti = timingStack.peek();
+            int idx = ti.getIndex();
+            int predecessorCount = predecessorCount(ti);
+            Vm v = backend.getVm(idx);
+            int pos = backend.getPosition(idx);
+
+            // find the next dependency that still needs a timing
+            Task pending = null;
+            while(pending == null && timingCursors[idx] <= predecessorCount){
+                int k = timingCursors[idx]++;
+                Task tj = (k < predecessorCount)? predecessor(ti, k)
+                        : (pos > 0)? backend.getTask(v, pos - 1)
+                        : null;
+                if(tj != null && timingStates[tj.getIndex()] != TIMED){
+                    pending = tj;
+                }
+            }
+            if(pending != null){
+                begin(pending);
+                continue;
+            }
+
+            // all dependencies are timed
+            float pst = 0.0f;
+            for(int k = 0; k < predecessorCount; k++){
+                Task tp = predecessor(ti, k);
+                Vm v_tp = backend.getVm(tp.getIndex());
+                float ast = actualStartTimes[tp.getIndex()];
+                float et = tp.executionTime(v_tp);
+                float tt = transferTime(ti, k, tp, v, v_tp);
+                pst = Math.max(pst, ast + et + tt);
+            }
+            if(pos > 0){
+                Task tb = backend.getTask(v, pos - 1);
+                float aft = actualStartTimes[tb.getIndex()] + tb.executionTime(v);
+                pst = Math.max(pst, aft);
+            }
+            logTiming(idx);
+            actualStartTimes[idx] = pst;
+            timingStates[idx] = TIMED;
+            timingStack.pop();
+        }
+    }
+
+    private void begin(Task task){
+        int idx = task.getIndex();
+        if(getAssignedVm(task) == null){
+            timingStack.clear();
+            throw new IllegalStateException(task + " is not assigned to any VM");
+        }
+        if(timingStates[idx] == IN_PROGRESS){
+            timingStack.clear();
+            throw new IllegalStateException(task + " waits for itself in " + algorithmName + " schedule");
+        }
+        logTiming(idx);
+        timingStates[idx] = IN_PROGRESS;
+        timingCursors[idx] = 0;
+        timingStack.push(task);
     }
 
     public List<Task> getAssignedTasks(Vm vm){
-        return this.assignment.get(vm);
+        return backend.getTasks(vm);
     }
 
     public boolean hasVm(Vm vm){
-        return this.assignment.containsKey(vm);
+        return backend.hasVm(vm);
     }
 
     public boolean hasTasksScheduledBefore(Task task, Vm vm){
-        List<Task> tasks = this.assignment.get(vm);
-        int idx = tasks.indexOf(task);
-        return idx>0 && idx<tasks.size();
+        int idx = positionOf(task, vm);
+        return idx>0;
     }
 
     public Task getTaskScheduledBefore(Task task, Vm vm){
-        int idx = this.assignment.get(vm).indexOf(task);
-        return this.assignment.get(vm).get(idx - 1);
+        int idx = positionOf(task, vm);
+        return backend.getTask(vm, idx - 1);
     }
 
     public boolean hasTasksScheduledAfter(Task task, Vm vm){
-        List<Task> taskList = this.assignment.get(vm);
-        int idx = taskList.indexOf(task);
-        return idx>0 && idx<taskList.size()-1;
+        int idx = positionOf(task, vm);
+        return idx>0 && idx<backend.size(vm)-1;
     }
 
     public Task getTaskScheduledAfter(Task task, Vm vm){
-        int idx = this.assignment.get(vm).indexOf(task);
-        return this.assignment.get(vm).get(idx + 1);
+        int idx = positionOf(task, vm);
+        return backend.getTask(vm, idx + 1);
     }
 
     public void log(){
@@ -87,7 +652,7 @@ public class Schedule {
             }
             BufferedWriter br = new BufferedWriter(new FileWriter(logFile));
             TreeMap<Vm,List<Task>> sortedAssignment = new TreeMap<>((vm1,vm2) -> vm1.getId()-vm2.getId());
-            sortedAssignment.putAll(assignment);
+            sortedAssignment.putAll(getAssignment());
             for(Map.Entry<Vm,List<Task>> e : sortedAssignment.entrySet()){
                 br.write(e.getKey() + "\n");
                 for (Task t : e.getValue()) {
@@ -102,8 +667,17 @@ public class Schedule {
         }
     }
 
+    // the backing map for the general purpose backend,
+    // a read-only view in ascending order of VM ids otherwise
     public Map<Vm, List<Task>> getAssignment() {
-        return assignment;
+        if(backend instanceof MapScheduleBackend){
+            return ((MapScheduleBackend) backend).getAssignment();
+        }
+        Map<Vm,List<Task>> assignment = new LinkedHashMap<>();
+        for(Vm vm : backend.getVms()){
+            assignment.put(vm, backend.getTasks(vm));
+        }
+        return Collections.unmodifiableMap(assignment);
     }
 
 }
@@ -0,0 +1,42 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.Vm;
+
+import java.util.Collection;
+import java.util.List;
+
+// storage of the task-to-VM assignment and of the order
+// of the tasks on each VM behind a Schedule
+interface ScheduleBackend {
+
+    // VM of a task, or null if the task is not assigned
+    Vm getVm(int taskIndex);
+
+    // slot of an assigned task in the task order of its VM
+    int getPosition(int taskIndex);
+
+    Task getTask(Vm vm, int position);
+
+    // number of tasks on a VM, 0 if the VM is not in the schedule
+    int size(Vm vm);
+
+    // to add a task at the end of a VM, returning its slot
+    int append(Task task, Vm vm);
+
+    // to add a task at a slot of a VM, shifting the tasks from that slot on
+    void insert(Task task, Vm vm, int position);
+
+    // to remove a task from its slot, shifting the tasks after it
+    void remove(Task task, Vm vm, int position);
+
+    boolean hasVm(Vm vm);
+
+    // to drop a VM that has no tasks left
+    void removeVm(Vm vm);
+
+    // tasks of a VM in their order, or null if the VM is not in the schedule
+    List<Task> getTasks(Vm vm);
+
+    Collection<Vm> getVms();
+
+}
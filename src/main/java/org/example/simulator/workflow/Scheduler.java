@@ -0,0 +1,14 @@
+package org.example.simulator.workflow;
+
+// a scheduling algorithm for deadline and budget constrained workflows;
+// a scheduler keeps no state between runs, so one instance may schedule
+// any number of workflows at once
+public interface Scheduler {
+
+    // the name of the schedules it makes and of their logs
+    String getName();
+
+    // to schedule a workflow with deadline factor alpha and budget factor beta
+    Schedule schedule(Workflow workflow, float alpha, float beta, Placement placement);
+
+}
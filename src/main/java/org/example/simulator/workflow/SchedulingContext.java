@@ -0,0 +1,80 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.DataCenter;
+import org.example.simulator.vm.VmType;
+
+import java.util.Collections;
+import java.util.List;
+
+// everything about a workflow that does not depend on alpha, beta or the
+// scheduling algorithm, from its naive schedules on the fastest, cheapest and
+// costliest VM types: the estimated makespan and sub-deadline timings on the
+// fastest VMs, the cost bounds of the budget and the task priorities;
+// computed once and shared by deadline(), budget() and both ESDWB variants;
+// the naive schedules themselves are not kept, so nothing in it changes once
+// built and concurrent runs read it without locking
+public class SchedulingContext {
+
+    // EST/EFT, LST/LFT and upward ranks on the fastest naive schedule
+    private TimingEngine timingEngine;
+
+    private float minEstdMakespan;
+
+    private float lowestCost;
+
+    private float highestCost;
+
+    private List<Task> sortedReversedByPriority;
+
+    public SchedulingContext(Workflow workflow){
+
+        // create a data center
+        DataCenter dataCenter = new DataCenter();
+
+        // naive schedules on the fastest, cheapest and costliest VMs
+        Schedule fastestSchedule = workflow.computeNaiveSchedule(dataCenter.findFastestVmType());
+        Schedule cheapestSchedule = workflow.computeNaiveSchedule(dataCenter.findCheapestVmType());
+        Schedule costliestSchedule = workflow.computeNaiveSchedule(dataCenter.findCostliestVmType());
+
+        // rank and sort the tasks in descending order of their priorities
+        List<VmType> vmTypeList = dataCenter.getVmTypeList();
+        this.timingEngine = new TimingEngine(workflow);
+        this.timingEngine.computeUpwardRanks(vmTypeList, fastestSchedule);
+        this.sortedReversedByPriority = Collections.unmodifiableList(this.timingEngine.sortedReversedByUpwardRank());
+
+        // estimated makespan and the sub-deadline timings of all tasks
+        this.timingEngine.computeEarliestTimes(fastestSchedule);
+        this.minEstdMakespan = this.timingEngine.estimatedMakespan();
+        this.timingEngine.computeLatestTimes(fastestSchedule, this.minEstdMakespan);
+
+        // cost bounds of the budget
+        this.lowestCost = workflow.cost(cheapestSchedule);
+        this.highestCost = workflow.cost(costliestSchedule);
+    }
+
+    // sub-deadline of a task from equation-(12)
+    public float deadline(Task task, float alpha){
+        return this.timingEngine.deadline(task, alpha);
+    }
+
+    public TimingEngine getTimingEngine() {
+        return timingEngine;
+    }
+
+    public float getMinEstdMakespan() {
+        return minEstdMakespan;
+    }
+
+    public float getLowestCost() {
+        return lowestCost;
+    }
+
+    public float getHighestCost() {
+        return highestCost;
+    }
+
+    public List<Task> getSortedReversedByPriority() {
+        return sortedReversedByPriority;
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.DataCenter;
+import org.example.simulator.vm.Vm;
+
+import java.util.List;
+
+// the state of one scheduling run on a workflow: the data center launching
+// the VMs of the run, the DVFS settings those VMs end up with and the schedule
+// assigning the tasks to them; none of it is shared with another run, so runs
+// on one frozen workflow need no locks
+public class SchedulingRun {
+
+    private Workflow workflow;
+
+    private DataCenter dataCenter;
+
+    private Schedule schedule;
+
+    public SchedulingRun(Workflow workflow, String algorithmName){
+        this.workflow = workflow;
+        this.dataCenter = new DataCenter();
+        this.schedule = new DenseSchedule(algorithmName, workflow.getName(), workflow.getGraph());
+    }
+
+    public Workflow getWorkflow() {
+        return workflow;
+    }
+
+    public DataCenter getDataCenter() {
+        return dataCenter;
+    }
+
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    // the VMs launched by the run, with their DVFS settings
+    public List<Vm> getVms() {
+        return dataCenter.getVmList();
+    }
+
+}
@@ -11,6 +11,9 @@ public class Task {
     // id of a task in XML file
     private String id;
 
+    // position of a task in the task list of its workflow
+    private int index;
+
     // name of a task in XML file
     private String name;
 
@@ -30,6 +33,9 @@ public class Task {
     // map containing predecessor-id and size of data transferred by it
     private Map<String,Float> transferredDataSize;
 
+    // set once the workflow of the task is frozen; the task is read-only then
+    private boolean frozen;
+
     // constructor
     public Task(String id, String name, float length) {
         this.id = id;
@@ -50,11 +56,17 @@ public class Task {
     // to compute average execution time of a task
     // in seconds
     public float averageExecutionTime(List<VmType> vmTypeList){
-        return vmTypeList.stream().map((tau) -> {
-                Vm v = new Vm(-1,tau);
-                return this.executionTime(v);
-            })
-            .reduce(0.0f,Float::sum) / vmTypeList.size();
+        float totalExecutionTime = 0.0f;
+        for(VmType tau : vmTypeList){
+            totalExecutionTime += this.executionTime(tau);
+        }
+        return totalExecutionTime / vmTypeList.size();
+    }
+
+    // to compute execution time of a task running on a fresh VM of a type
+    // in seconds
+    public float executionTime(VmType tau) {
+        return (this.length / tau.getMaximumProcessingSpeed());
     }
 
     // to compute the time required to transfer data from predecessor task
@@ -80,74 +92,28 @@ public class Task {
         return ((float) Math.ceil(this.executionTime(v))) * v.getType().getCostPerSecond();
     }
 
+    // to compute monetary cost of a task running on a fresh VM of a type
+    // in USD
+    public float cost(VmType tau) {
+        return ((float) Math.ceil(this.executionTime(tau))) * tau.getCostPerSecond();
+    }
+
     // minimum of costs of running a task on all VMs
     public float minimumCost(List<VmType> vmTypeList) {
-        return vmTypeList.stream().map((tau) -> {
-                Vm v = new Vm(-1,tau);
-                return this.cost(v);
-            }).min(Float::compareTo).get();
+        float minCost = Float.POSITIVE_INFINITY;
+        for(VmType tau : vmTypeList){
+            minCost = Math.min(minCost, this.cost(tau));
+        }
+        return minCost;
     }
 
     // maximum of costs of running a task on all VMs
     public float maximumCost(List<VmType> vmTypeList) {
-        return vmTypeList.stream().map((tau) -> {
-            Vm v = new Vm(-1,tau);
-            return this.cost(v);
-        }).max(Float::compareTo).get();
-    }
-
-    // from recursive equation-(2)
-    public float earliestStartTime(Schedule schedule) {
-        return this.predecessors.stream().map((tp) -> {
-            Vm v_ti = schedule.getAssignedVm(this);
-            Vm v_tp = schedule.getAssignedVm(tp);
-            float est = tp.earliestStartTime(schedule);
-            float et = tp.executionTime(v_tp);
-            float tt = this.transferTime(v_ti, tp, v_tp);
-            return est + et + tt;
-        })
-        .max(Float::compareTo).orElse(0.0f);
-    }
-
-    // from recursive equation-(3)
-    public float earliestFinishTime(Schedule schedule) {
-        Vm v_ti = schedule.getAssignedVm(this);
-        return this.earliestStartTime(schedule) + this.executionTime(v_ti);
-    }
-
-    // from recursive equation-(4)
-    public float latestStartTime(float estdMakespan, Schedule schedule){
-        return this.successors.stream().map(ts -> {
-            Vm v_ti = schedule.getAssignedVm(this);
-            Vm v_ts = schedule.getAssignedVm(ts);
-            float lst = ts.latestStartTime(estdMakespan, schedule);
-            float tt = ts.transferTime(v_ts,this, v_ti);
-            float et = this.executionTime(v_ti);
-            return lst - tt - et;
-        })
-        .min(Float::compareTo).orElse(estdMakespan - this.executionTime(schedule.getAssignedVm(this)));
-    }
-
-    // from recursive equation-(5)
-    public float latestFinishTime(float estdMakespan, Schedule schedule){
-        Vm v_ti = schedule.getAssignedVm(this);
-        return this.latestStartTime(estdMakespan, schedule) + this.executionTime(v_ti);
-    }
-
-    // from equation-(12)
-    public float deadline(float alpha, float estdMakespan, Schedule schedule){
-        return alpha * this.latestFinishTime(estdMakespan, schedule);
-    }
-
-    // from equation-(13)
-    public float priority(List<VmType> vmTypeList, Schedule schedule){
-        return this.averageExecutionTime(vmTypeList) + this.successors.stream().map((ts) -> {
-                Vm v_ti = schedule.getAssignedVm(this);
-                Vm v_ts = schedule.getAssignedVm(ts);
-                float tt = ts.transferTime(v_ts, this, v_ti);
-                float pr = ts.priority(vmTypeList, schedule);
-                return tt + pr;
-            }).max(Float::compareTo).orElse(0.0f);
+        float maxCost = Float.NEGATIVE_INFINITY;
+        for(VmType tau : vmTypeList){
+            maxCost = Math.max(maxCost, this.cost(tau));
+        }
+        return maxCost;
     }
 
     // from equation-(14)
@@ -177,6 +143,9 @@ public class Task {
 
     // from equation-(17)
     public float actualStartTime(Vm v, Schedule schedule){
+        if(v != null && schedule.getAssignedVm(this) == v){
+            return schedule.actualStartTime(this);
+        }
         if(!schedule.hasTasksScheduledBefore(this, v)){
             return this.possibleStartTime(schedule);
         }
@@ -191,9 +160,9 @@ public class Task {
         return this.actualStartTime(v, schedule) + this.executionTime(v);
     }
 
-    // from equation-(21)
-    public float minimumNeededProcessingSpeed(float alpha, float estdMakespan, Schedule forDeadline, Schedule forPst){
-        return this.length / (this.deadline(alpha,estdMakespan,forDeadline)-this.possibleStartTime(forPst));
+    // from equation-(21), for an already computed deadline of the task
+    public float minimumNeededProcessingSpeed(float deadline, Schedule forPst){
+        return this.length / (deadline-this.possibleStartTime(forPst));
     }
 
     // from equation-(22)
@@ -233,33 +202,19 @@ public class Task {
 
     // helper method: to add a predecessor in the list
     public void addPredecessor(Task theTask){
+        checkNotFrozen();
         predecessors.add(theTask);
     }
 
     // helper method: to add a successor in the list
     public void addSuccessor(Task theTask){
+        checkNotFrozen();
         successors.add(theTask);
     }
 
-    // to compute the amount of data (in MB) transferred by
-    // each of predecessor tasks
-    public void computeTransferredDataSizes(){
-        for(Task tempTask : predecessors){ // for each predecessor task
-            String pid = tempTask.id; // get the task-id
-            for(FileItem tempFile : requiredData){ // for each input file
-                String tempFileName = tempFile.getName(); // get file name
-                String[] tempArr = tempFileName.split("[_.]");                   // check if file name contains
-                int idx = Arrays.binarySearch(tempArr,pid, Comparator.naturalOrder()); // predecessor's task-id
-                if(idx>=0){
-                    float tempFileSize = tempFile.getSize();  // if predecessor transferred the file
-                    addTransferredDataSize(pid,tempFileSize); // then add entry predecessor's task-id and file size
-                }
-            }
-        }
-    }
-
-    // to insert an entry in the map
-    private void addTransferredDataSize(String id, float fileSizeInBytes) {
+    // to add the size of a file transferred by a predecessor
+    void addTransferredDataSize(String id, float fileSizeInBytes) {
+        checkNotFrozen();
         float fileSizeInGb = fileSizeInBytes * 7.451e-9f;
         float tempSize = 0.0f;
         if(this.transferredDataSize.containsKey(id)){
@@ -268,6 +223,28 @@ public class Task {
         transferredDataSize.put(id, tempSize+fileSizeInGb);  // existing file-size
     }
 
+    // to make the task read-only, so concurrent runs can share it
+    void freeze(){
+        if(this.frozen){
+            return;
+        }
+        this.predecessors = Collections.unmodifiableList(this.predecessors);
+        this.successors = Collections.unmodifiableList(this.successors);
+        this.requiredData = Collections.unmodifiableList(this.requiredData);
+        this.transferredDataSize = Collections.unmodifiableMap(this.transferredDataSize);
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen(){
+        if(this.frozen){
+            throw new IllegalStateException("Task " + id + " belongs to a frozen workflow");
+        }
+    }
+
     // getters, setters and tostring
 
     public String getId() {
@@ -275,14 +252,25 @@ public class Task {
     }
 
     public void setId(String id) {
+        checkNotFrozen();
         this.id = id;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        checkNotFrozen();
+        this.index = index;
+    }
+
     public String getName() {
         return name;
     }
 
     public void setName(String name) {
+        checkNotFrozen();
         this.name = name;
     }
 
@@ -291,6 +279,7 @@ public class Task {
     }
 
     public void setLength(float length) {
+        checkNotFrozen();
         this.length = length;
     }
 
@@ -299,6 +288,7 @@ public class Task {
     }
 
     public void setRequiredData(List<FileItem> requiredData) {
+        checkNotFrozen();
         this.requiredData = requiredData;
     }
 
@@ -307,6 +297,7 @@ public class Task {
     }
 
     public void setPredecessors(List<Task> predecessors) {
+        checkNotFrozen();
         this.predecessors = predecessors;
     }
 
@@ -315,6 +306,7 @@ public class Task {
     }
 
     public void setSuccessors(List<Task> successors) {
+        checkNotFrozen();
         this.successors = successors;
     }
 
@@ -323,6 +315,7 @@ public class Task {
     }
 
     public void setTransferredDataSize(Map<String, Float> transferredDataSize) {
+        checkNotFrozen();
         this.transferredDataSize = transferredDataSize;
     }
 
@@ -0,0 +1,170 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// evaluates the timing equations of the Workflow Model for a whole workflow
+// by walking its tasks once in topological order instead of recursing
+// through predecessors of every task; runs on the CSR graph of the workflow
+// in the topological order the workflow computed once
+public class TimingEngine {
+
+    private Workflow workflow;
+
+    private WorkflowGraph graph;
+
+    // task indices sorted in topological order, cached by the workflow
+    private int[] topologicalOrder;
+
+    // indexed by Task.getIndex()
+    private float[] earliestStartTimes;
+
+    private float[] earliestFinishTimes;
+
+    private float[] latestStartTimes;
+
+    private float[] latestFinishTimes;
+
+    private float[] upwardRanks;
+
+    public TimingEngine(Workflow workflow){
+        this.workflow = workflow;
+        this.graph = workflow.getGraph();
+        this.topologicalOrder = workflow.getTopology().getTopologicalOrder();
+        int n = graph.size();
+        this.earliestStartTimes = new float[n];
+        this.earliestFinishTimes = new float[n];
+        this.latestStartTimes = new float[n];
+        this.latestFinishTimes = new float[n];
+        this.upwardRanks = new float[n];
+    }
+
+    // from equations-(2) and (3), for every task at once
+    public void computeEarliestTimes(Schedule schedule){
+        int[] predecessorOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        float[] dataSizes = graph.getPredecessorDataSizes();
+        for(int i : topologicalOrder){
+            Vm v_ti = schedule.getAssignedVm(i);
+            float est = 0.0f;
+            for(int e = predecessorOffsets[i]; e < predecessorOffsets[i + 1]; e++){
+                int p = predecessors[e];
+                Vm v_tp = schedule.getAssignedVm(p);
+                float et = graph.getLength(p) / v_tp.getProcessingSpeed();
+                float tt = WorkflowGraph.transferTime(dataSizes[e], v_ti, v_tp);
+                est = Math.max(est, earliestStartTimes[p] + et + tt);
+            }
+            earliestStartTimes[i] = est;
+            earliestFinishTimes[i] = est + graph.getLength(i) / v_ti.getProcessingSpeed();
+        }
+    }
+
+    // from equations-(4) and (5), for every task at once,
+    // walking the topological order backwards
+    public void computeLatestTimes(Schedule schedule, float estdMakespan){
+        int[] successorOffsets = graph.getSuccessorOffsets();
+        int[] successors = graph.getSuccessors();
+        float[] dataSizes = graph.getSuccessorDataSizes();
+        for(int k = topologicalOrder.length - 1; k >= 0; k--){
+            int i = topologicalOrder[k];
+            Vm v_ti = schedule.getAssignedVm(i);
+            float et = graph.getLength(i) / v_ti.getProcessingSpeed();
+            float lst = estdMakespan - et;
+            if(successorOffsets[i] < successorOffsets[i + 1]){
+                lst = Float.POSITIVE_INFINITY;
+                for(int e = successorOffsets[i]; e < successorOffsets[i + 1]; e++){
+                    int s = successors[e];
+                    Vm v_ts = schedule.getAssignedVm(s);
+                    float tt = WorkflowGraph.transferTime(dataSizes[e], v_ts, v_ti);
+                    lst = Math.min(lst, latestStartTimes[s] - tt - et);
+                }
+            }
+            latestStartTimes[i] = lst;
+            latestFinishTimes[i] = lst + et;
+        }
+    }
+
+    // from equation-(13), for every task at once,
+    // walking the topological order backwards
+    public void computeUpwardRanks(List<VmType> vmTypeList, Schedule schedule){
+
+        // a task runs at the maximum processing speed of a fresh VM
+        float[] processingSpeeds = new float[vmTypeList.size()];
+        for(int k = 0; k < processingSpeeds.length; k++){
+            processingSpeeds[k] = vmTypeList.get(k).getMaximumProcessingSpeed();
+        }
+
+        int[] successorOffsets = graph.getSuccessorOffsets();
+        int[] successors = graph.getSuccessors();
+        float[] dataSizes = graph.getSuccessorDataSizes();
+        for(int k = topologicalOrder.length - 1; k >= 0; k--){
+            int i = topologicalOrder[k];
+            float averageExecutionTime = 0.0f;
+            for(float ps : processingSpeeds){
+                averageExecutionTime += graph.getLength(i) / ps;
+            }
+            averageExecutionTime /= processingSpeeds.length;
+            Vm v_ti = schedule.getAssignedVm(i);
+            float rank = 0.0f;
+            for(int e = successorOffsets[i]; e < successorOffsets[i + 1]; e++){
+                int s = successors[e];
+                Vm v_ts = schedule.getAssignedVm(s);
+                float tt = WorkflowGraph.transferTime(dataSizes[e], v_ts, v_ti);
+                rank = Math.max(rank, tt + upwardRanks[s]);
+            }
+            upwardRanks[i] = averageExecutionTime + rank;
+        }
+    }
+
+    // tasks in descending order of their upward ranks,
+    // ties keep the order of the workflow task list
+    public List<Task> sortedReversedByUpwardRank(){
+        List<Task> sortedTasks = new ArrayList<>(workflow.getTaskList());
+        sortedTasks.sort((t1, t2) -> Float.compare(upwardRanks[t2.getIndex()], upwardRanks[t1.getIndex()]));
+        return sortedTasks;
+    }
+
+    // maximum earliest finish time among the exit tasks
+    public float estimatedMakespan(){
+        float makespan = 0.0f;
+        for(int i = 0; i < graph.size(); i++){
+            if(graph.getSuccessorCount(i) == 0){
+                makespan = Math.max(makespan, earliestFinishTimes[i]);
+            }
+        }
+        return makespan;
+    }
+
+    public float earliestStartTime(Task task){
+        return earliestStartTimes[task.getIndex()];
+    }
+
+    public float earliestFinishTime(Task task){
+        return earliestFinishTimes[task.getIndex()];
+    }
+
+    public float latestStartTime(Task task){
+        return latestStartTimes[task.getIndex()];
+    }
+
+    public float latestFinishTime(Task task){
+        return latestFinishTimes[task.getIndex()];
+    }
+
+    // sub-deadline of a task from equation-(12)
+    public float deadline(Task task, float alpha){
+        return alpha * latestFinishTimes[task.getIndex()];
+    }
+
+    public float upwardRank(Task task){
+        return upwardRanks[task.getIndex()];
+    }
+
+    public int[] getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+}
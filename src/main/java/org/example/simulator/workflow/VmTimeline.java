@@ -0,0 +1,230 @@
+package org.example.simulator.workflow;
+
+// the idle gaps of one VM in slot order: gap k lies between the actual
+// finish time of the task in slot k-1 (0 for k = 0) and the actual start time
+// of the task in slot k (unbounded for the last gap, after the last task);
+// kept as an implicit treap where every node also knows the longest bounded
+// gap of its subtree, so the earliest gap a task fits in is found in
+// logarithmic time, and whether any gap before the last task holds it in O(1)
+class VmTimeline {
+
+    private static final class Node {
+
+        float start;
+
+        float end;
+
+        // longest bounded gap of the subtree, the last gap does not count
+        float longest;
+
+        int size;
+
+        int priority;
+
+        Node left;
+
+        Node right;
+
+        Node(float start, float end, int priority){
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            update(this);
+        }
+
+    }
+
+    private Node root;
+
+    // state of the xorshift generator for node priorities
+    private int seed = 0x2545F491;
+
+    // a timeline of an empty VM: one unbounded gap
+    VmTimeline(){
+        this.root = new Node(0.0f, Float.POSITIVE_INFINITY, nextPriority());
+    }
+
+    // a timeline from the actual start/finish times of the tasks of a VM in slot order
+    VmTimeline(float[] startTimes, float[] finishTimes, int count){
+        float gapStart = 0.0f;
+        for(int k = 0; k < count; k++){
+            root = merge(root, new Node(gapStart, startTimes[k], nextPriority()));
+            gapStart = finishTimes[k];
+        }
+        root = merge(root, new Node(gapStart, Float.POSITIVE_INFINITY, nextPriority()));
+    }
+
+    int size(){
+        return root.size;
+    }
+
+    float gapStart(int slot){
+        return nodeAt(slot).start;
+    }
+
+    float gapEnd(int slot){
+        return nodeAt(slot).end;
+    }
+
+    // the longest gap before the last task, 0 if the VM runs no task
+    float longestGap(){
+        return root.longest;
+    }
+
+    // the earliest gap where a task that can start at possibleStartTime and
+    // runs for executionTime fits; the last gap always fits
+    int findSlot(float possibleStartTime, float executionTime){
+
+        // the gap containing the possible start time, if the task fits there
+        int slot = floor(root, 0, possibleStartTime);
+        if(slot >= 0 && possibleStartTime + executionTime <= gapEnd(slot)){
+            return slot;
+        }
+
+        // otherwise the first later gap that is long enough, or the last one
+        slot = firstFit(root, 0, possibleStartTime, executionTime);
+        return (slot >= 0)? slot: size() - 1;
+    }
+
+    // the gap in which a task that must start at startTime would run
+    // without delaying the next task, or -1 if there is none
+    int findSlotStartingAt(float startTime, float executionTime){
+        int slot = floor(root, 0, startTime);
+        if(slot < 0 || !(gapStart(slot) < startTime) || startTime + executionTime > gapEnd(slot)){
+            return -1;
+        }
+        return slot;
+    }
+
+    // to place a task running from startTime to finishTime inside a gap,
+    // leaving the idle parts before and after it as two gaps
+    void split(int slot, float startTime, float finishTime){
+        Node[] parts = splitAt(root, slot);
+        Node[] gap = splitAt(parts[1], 1);
+        Node after = new Node(finishTime, gap[0].end, nextPriority());
+        gap[0].end = startTime;
+        update(gap[0]);
+        root = merge(merge(parts[0], gap[0]), merge(after, gap[1]));
+    }
+
+    // to undo split(slot, ...): the gap of the slot and the next one,
+    // around the task placed between them, become one gap again
+    void join(int slot){
+        Node[] parts = splitAt(root, slot);
+        Node[] rest = splitAt(parts[1], 2);
+        Node[] gaps = splitAt(rest[0], 1);
+        gaps[0].end = gaps[1].end;
+        update(gaps[0]);
+        root = merge(merge(parts[0], gaps[0]), rest[1]);
+    }
+
+    // slot of the last gap starting at or before a time, -1 if none does
+    private static int floor(Node node, int offset, float time){
+        int slot = -1;
+        while(node != null){
+            int leftSize = size(node.left);
+            if(node.start <= time){
+                slot = offset + leftSize;
+                offset += leftSize + 1;
+                node = node.right;
+            }
+            else {
+                node = node.left;
+            }
+        }
+        return slot;
+    }
+
+    // slot of the first bounded gap starting after a time that is long enough
+    private static int firstFit(Node node, int offset, float time, float executionTime){
+        if(node == null || node.longest < executionTime){
+            return -1;
+        }
+        int leftSize = size(node.left);
+        if(node.start > time){
+            int slot = firstFit(node.left, offset, time, executionTime);
+            if(slot >= 0){
+                return slot;
+            }
+            if(node.start + executionTime <= node.end){
+                return offset + leftSize;
+            }
+        }
+        return firstFit(node.right, offset + leftSize + 1, time, executionTime);
+    }
+
+    private Node nodeAt(int slot){
+        Node node = root;
+        while(true){
+            int leftSize = size(node.left);
+            if(slot < leftSize){
+                node = node.left;
+            }
+            else if(slot == leftSize){
+                return node;
+            }
+            else {
+                slot -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // to split a treap into its first count gaps and the rest
+    private static Node[] splitAt(Node node, int count){
+        if(node == null){
+            return new Node[]{ null, null };
+        }
+        int leftSize = size(node.left);
+        if(count <= leftSize){
+            Node[] parts = splitAt(node.left, count);
+            node.left = parts[1];
+            update(node);
+            return new Node[]{ parts[0], node };
+        }
+        Node[] parts = splitAt(node.right, count - leftSize - 1);
+        node.right = parts[0];
+        update(node);
+        return new Node[]{ node, parts[1] };
+    }
+
+    private static Node merge(Node first, Node second){
+        if(first == null){
+            return second;
+        }
+        if(second == null){
+            return first;
+        }
+        if(first.priority > second.priority){
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    private static int size(Node node){
+        return (node == null)? 0: node.size;
+    }
+
+    private static void update(Node node){
+        node.size = 1 + size(node.left) + size(node.right);
+        node.longest = (node.end == Float.POSITIVE_INFINITY)? 0.0f: node.end - node.start;
+        if(node.left != null){
+            node.longest = Math.max(node.longest, node.left.longest);
+        }
+        if(node.right != null){
+            node.longest = Math.max(node.longest, node.right.longest);
+        }
+    }
+
+    private int nextPriority(){
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+}
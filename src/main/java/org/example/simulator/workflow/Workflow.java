@@ -3,23 +3,56 @@ package org.example.simulator.workflow;
 import org.example.simulator.vm.DataCenter;
 import org.example.simulator.vm.Vm;
 import org.example.simulator.vm.VmType;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.input.SAXBuilder;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Workflow {
 
+    // both keep no state between runs, so all workflows share them
+    public static final Scheduler ESDWB = new ESDWBScheduler();
+
+    public static final Scheduler MODIFIED_ESDWB = new ModifiedESDWBScheduler();
+
     private String name;
 
     private List<Task> taskList;
 
+    // naive schedules, sub-deadline timings, cost bounds and priorities,
+    // computed on first use and dropped when the task list changes
+    private SchedulingContext schedulingContext;
+
+    // execution times and costs of every task on every VM type,
+    // built after parsing and dropped when the task list changes
+    private ExecutionMatrix executionMatrix;
+
+    // the DAG in compressed sparse rows, built on first use
+    // and dropped when the task list changes
+    private WorkflowGraph graph;
+
+    // topological order, levels and critical path, computed after parsing
+    // and dropped when the task list changes
+    private WorkflowTopology topology;
+
+    // the timing engine estimatedMakespan evaluates schedules on, built on
+    // first use and dropped when the task list changes; the sub-deadline
+    // timings of the scheduling context are on an engine of their own
+    private TimingEngine timingEngine;
+
+    // whether scheduling runs print their progress and write their per-task
+    // CSV logs; parameter sweeps turn it off, since their runs share log files
+    private volatile boolean verbose = true;
+
+    // whether scheduling runs write their per-task CSV logs, on and off with
+    // verbose unless set on its own; ExperimentRunner keeps the logs but not
+    // the progress output, as each of its runs has a log file of its own
+    private volatile boolean logging = true;
+
+    // set by freeze() once the tasks and everything precomputed from them are
+    // final; from then on runs read them without locking and nothing may change them
+    private volatile boolean frozen;
+
     public Workflow(){
         this.taskList = new ArrayList<>();
     }
@@ -27,24 +60,21 @@ public class Workflow {
     // according to Workflow Model
 
     // to compute estimated makespan of a workflow
+    // by a single forward pass in topological order;
+    // runs sharing the workflow take turns on its timing engine
     public float estimatedMakespan(Schedule schedule){
-       return this.taskList.stream()
-               .filter((ti) -> ti.getSuccessors().isEmpty())
-               .map((ti) -> ti.earliestFinishTime(schedule))
-               .max(Float::compareTo).get();
+        TimingEngine timingEngine = this.getTimingEngine();
+        synchronized(timingEngine){
+            timingEngine.computeEarliestTimes(schedule);
+            return timingEngine.estimatedMakespan();
+        }
     }
 
     // to compute deadline of a workflow by equation-(6)
     public float deadline(float alpha){
 
-        // create a data center
-        DataCenter dataCenter = new DataCenter();
-
-        // create a schedule by assigning tasks to cheapest VMs
-        // from the data center
-        VmType fastestType = dataCenter.findFastestVmType();
-        Schedule schedule = this.computeNaiveSchedule(fastestType);
-        float minEstdMakespan = this.estimatedMakespan(schedule);
+        // estimated makespan of the naive schedule on fastest VMs
+        float minEstdMakespan = this.getSchedulingContext().getMinEstdMakespan();
 
         // compute and return the deadline
         return alpha * minEstdMakespan;
@@ -76,20 +106,10 @@ public class Workflow {
     // to compute budget of a workflow by equation-(11)
     public float budget(float beta){
 
-        // create a data center
-        DataCenter dataCenter = new DataCenter();
-
-        // create a schedule by assigning tasks to cheapest VMs
-        // from the data center
-        VmType cheapestType = dataCenter.findCheapestVmType();
-        Schedule cheapestSchedule = computeNaiveSchedule(cheapestType);
-        float lowestCost = this.cost(cheapestSchedule);
-
-        // create a schedule by assigning tasks to costliest VMs
-        // from the data center
-        VmType costliestType = dataCenter.findCostliestVmType();
-        Schedule costliestSchedule = computeNaiveSchedule(costliestType);
-        float highestCost = this.cost(costliestSchedule);
+        // costs of the naive schedules on cheapest and costliest VMs
+        SchedulingContext context = this.getSchedulingContext();
+        float lowestCost = context.getLowestCost();
+        float highestCost = context.getHighestCost();
 
         // compute and return the budget
         return lowestCost + beta*(highestCost-lowestCost);
@@ -99,20 +119,10 @@ public class Workflow {
     // to compute surplus budget of a workflow
     public float initialSurplusBudget(float beta){
 
-        // create a data center
-        DataCenter dataCenter = new DataCenter();
-
-        // create a schedule by assigning tasks to cheapest VMs
-        // from the data center
-        VmType cheapestType = dataCenter.findCheapestVmType();
-        Schedule cheapestSchedule = computeNaiveSchedule(cheapestType);
-        float lowestCost = this.cost(cheapestSchedule);
-
-        // create a schedule by assigning tasks to costliest VMs
-        // from the data center
-        VmType costliestType = dataCenter.findCostliestVmType();
-        Schedule costliestSchedule = computeNaiveSchedule(costliestType);
-        float highestCost = this.cost(costliestSchedule);
+        // costs of the naive schedules on cheapest and costliest VMs
+        SchedulingContext context = this.getSchedulingContext();
+        float lowestCost = context.getLowestCost();
+        float highestCost = context.getHighestCost();
 
         // compute and return initial surplus budget
         return beta*(highestCost-lowestCost);
@@ -127,116 +137,48 @@ public class Workflow {
                 .max(Float::compareTo).get();
     }
 
+    // to run a schedule event by event, for per-task timelines and VM use
+    public ExecutionTrace simulate(Schedule schedule){
+        return new ExecutionSimulator(this, schedule).simulate();
+    }
+
     // to parse DAX (DAG in XML) file to create a workflow
     public void create(String daxPath) {
+        checkNotFrozen();
 
         // a VM type object
-        VmType vmType = new VmType(0, 0.0058f,
-                Arrays.asList(1.20f, 1.15f, 1.10f, 1.05f, 1.00f, 0.90f),
-                Arrays.asList(1.80f, 1.60f, 1.40f, 1.20f, 1.00f, 0.80f));
+        VmType vmType = referenceVmType();
 
-        // helper DS
-         Map<String,Task> taskMap = new HashMap<>();
+        // anything precomputed for the previous tasks is stale
+        this.schedulingContext = null;
+        this.executionMatrix = null;
+        this.graph = null;
+        this.topology = null;
+        this.timingEngine = null;
 
-        // first: parse the XML file
+        // first: stream through the XML file, creating the tasks
+        // with their lengths in MI, input files and edges
         try{
 
-            // create the document object and
-            // get root element
-            SAXBuilder builder = new SAXBuilder();
             File dax = new File(daxPath);
 
             // get workflow name
             this.name = Arrays.stream(dax.getName().split("_")).findFirst().get();
 
-            Document doc = builder.build(dax);
-            Element root = doc.getRootElement();
-
-            // loop through all the child-nodes of root
-            List<Element> nodeList = root.getChildren();
-            for(Element node : nodeList){
-
-                switch(node.getName().toLowerCase()){
-
-                    // if it is 'job' node
-                    case "job":
-
-                        // get id, name of the job
-                        String id = node.getAttributeValue("id");
-                        String name = node.getAttributeValue("name");
-
-                        // compute the length in MIPS
-                        float runtime = Float.parseFloat(node.getAttributeValue("runtime")); // in seconds
-                        float processingSpeed = vmType.getMaximumProcessingSpeed(); // in MIPS
-                        float length = runtime * processingSpeed;
-
-                        // loop through all the files and
-                        // keep the input files
-                        List<Element> fileNodeList = node.getChildren();
-                        List<FileItem> inputFileList = new ArrayList<>();
-                        for(Element fileNode : fileNodeList){
-                            String fileType = fileNode.getAttributeValue("link"); // get the file-type
-                            if(fileType.equalsIgnoreCase("input")) {
-                                // if it is input file, get name and size of the file
-                                // add it to inputFileList
-                                String fileName = fileNode.getAttributeValue("file");
-                                float fileSize = Float.parseFloat(fileNode.getAttributeValue("size"));
-                                inputFileList.add(new FileItem(fileName, fileSize));
-
-                            }
-                        }
-
-                        // crate a Task object with id, name, length and input-files
-                        Task tempTask = new Task(id,name,length);
-                        tempTask.setRequiredData(inputFileList);
-
-                        // add it to workflow
-                        taskList.add(tempTask);
-                        taskMap.put(id,tempTask);
-                        break;
-
-                    // if it is 'child' node
-                    case "child":
-
-                        // get the child node id and
-                        // corresponding parent nodes
-                        String childNodeId = node.getAttributeValue("ref");
-                        List<Element> parentNodeList = node.getChildren();
-
-                        // if workflow has a task with that id
-                        if(taskMap.containsKey(childNodeId)){
-
-                            // get the task
-                            Task childTask = taskMap.get(childNodeId);
-
-                            // loop through the parent nodes
-                            for(Element parentNode : parentNodeList){
-
-                                // get parent node id
-                                String parentNodeId = parentNode.getAttributeValue("ref");
-
-                                // if workflow has a task with that id
-                                if(taskMap.containsKey(parentNodeId)){
-
-                                    // get the task
-                                    Task parentTask = taskMap.get(parentNodeId);
-
-                                    // add entries accordingly
-                                    childTask.addPredecessor(parentTask);
-                                    parentTask.addSuccessor(childTask);
-
-                                }
-
-                            }
-
-                        }
-                        break;
-                }
+            DaxParser parser = new DaxParser(vmType.getMaximumProcessingSpeed());
+            this.taskList = parser.parse(dax);
+            if(this.verbose){
+                System.out.println("Parsed " + dax.getName() + ": " + parser);
             }
 
             // second: compute transferred data sizes from its predecessor
             // for each task in the workflow
-            this.taskList.forEach(Task::computeTransferredDataSizes);
+            this.computeTransferredDataSizes(parser.getProducers());
+
+            // third: execution times and costs of each task on each VM type,
+            // and the topological order, levels and critical path
+            this.getExecutionMatrix();
+            this.getTopology();
 
         }
         catch(Exception exc){
@@ -245,460 +187,159 @@ public class Workflow {
 
     }
 
-    // to create a naive-schedule by Breadth-First Traversal
-    public Schedule computeNaiveSchedule(VmType vmType){
-
-        // create a Data Center
-        DataCenter dataCenter = new DataCenter();
-
-        // to store the schedule
-        Schedule naiveSchedule = new Schedule("Naive");
-
-        // helper object and collection
-        HashMap<String,Boolean> visited = new HashMap<>();
-
-        // get the set of entry tasks
-        List<Task> entryTasks = taskList.stream()
-                .filter((t) -> t.getPredecessors().isEmpty())
-                .collect(Collectors.toList());
-
-        // initialize visited HashMap to false(s)
-        taskList.forEach((ti) -> visited.put(ti.getId(),false));
-
-        // loop through all the entry tasks
-        for(Task entryTask : entryTasks){
-
-            // for each entry task start a breadth-first traversal
-            Queue<Task> taskQueue = new LinkedList<>();
-            taskQueue.add(entryTask);
-            visited.put(entryTask.getId(),true);
-
-            // breadth-first traversal
-            while(!taskQueue.isEmpty()){
-
-                // pop a task
-                Task theTask = taskQueue.remove();
-
-                // assign to the VM
-                // get a new VM from the Data Center
-                Vm theVm = dataCenter.launchNewVm(vmType);
-                naiveSchedule.assign(theTask,theVm);
-
-                // push successor(s) into queue
-                for(Task succTask : theTask.getSuccessors()){
-                    if(!visited.get(succTask.getId())){
-                        taskQueue.add(succTask);
-                        visited.put(succTask.getId(),true);
-                    }
-                }
-
-            }
-
-        }
-        return naiveSchedule;
-
+    // the VM type whose maximum processing speed turns the runtimes of jobs into task lengths
+    static VmType referenceVmType() {
+        return new VmType(0, 0.0058f,
+                Arrays.asList(1.20f, 1.15f, 1.10f, 1.05f, 1.00f, 0.90f),
+                Arrays.asList(1.80f, 1.60f, 1.40f, 1.20f, 1.00f, 0.80f));
     }
 
-    public Schedule computeESDWBSchedule(float alpha, float beta) {
-
-        System.out.println("Executing ESDWB...");
-
-        // create a data center
-        DataCenter dataCenter = new DataCenter();
-
-        // computing initial naive schedule on fastest VMs
-        VmType fastestType = dataCenter.findFastestVmType();
-        Schedule fastestSchedule = this.computeNaiveSchedule(fastestType);
-
-        // sort workflow-tasks in descending order of their priorities
-        List<Task> sortedReversedByPriority = this.taskList.stream()
-                .sorted((t1, t2) -> {
-                    float pr1 = t1.priority(dataCenter.getVmTypeList(), fastestSchedule);
-                    float pr2 = t2.priority(dataCenter.getVmTypeList(), fastestSchedule);
-                    return (pr2==pr1)? 0: (pr2<pr1)? -1: 1;
-                }).collect(Collectors.toList());
-
-        // compute estimated makespan
-        float estdMakespan = this.estimatedMakespan(fastestSchedule);
+    // to create a workflow from tasks built in memory (e.g. by WorkflowGenerator),
+    // with their edges and transferred data sizes; the tasks are indexed in list order
+    public void create(String name, List<Task> taskList) {
+        checkNotFrozen();
+        this.name = name;
+        this.setTaskList(taskList);
+        this.getExecutionMatrix();
+        this.getTopology();
+    }
 
-        // compute initial surplus budget
-        float surplusBudget = this.initialSurplusBudget(beta);
+    // to create a workflow from the binary cache of a DAX file, or to parse the
+    // file and write its cache when there is no cache for its current content
+    public void createCached(String daxPath) {
+        checkNotFrozen();
 
-        // create empty schedule
-        Schedule efficientSchedule = new Schedule("ESDWB",this.name,this.taskList.size());
+        File dax = new File(daxPath);
+        WorkflowCache cache = new WorkflowCache();
 
-        // for logging
-        File logFile = new File("src/main/resources/logs/" +
-                "ESDWB-" + this.name + "-" + this.taskList.size() + ".csv");
-        BufferedWriter br = null;
+        // first: map the cache file, if it is for this content of the DAX file
         try {
-            if(!logFile.exists()){
-                logFile.createNewFile();
-            }
-            br = new BufferedWriter(new FileWriter(logFile));
-            br.write("Task,Surplus,Budget,Min. cost,Max. cost,Vm,Cost,Update\n");
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        // for progress bar
-        int iteration = 0;
-        int totalTasks = sortedReversedByPriority.size();
-
-        // loop through all tasks in workflow
-        for(Task t : sortedReversedByPriority){
-
-            // for progress bar
-            int progess = (int) (((float)iteration/totalTasks) * 100.0f);
-            System.out.print("Processing: " + progess + "% " + "\r");
-            iteration += 1;
-
-            // for logging
-            float surplusBudgetForThisRound = surplusBudget;
-
-            // initialize VM to null
-            Vm v = null;
-
-            // compute budget of the task
-            float taskBudget = t.budget(surplusBudget, dataCenter.getVmTypeList());
-
-            // compute the deadline of the task
-            float taskDeadline = t.deadline(alpha, estdMakespan, fastestSchedule);
-
-            // if the task is not an entry-task
-            if(!t.getPredecessors().isEmpty()){
-
-                // sort predecessors in descending order of the data sizes transferred to the task
-                Map<String,Float> transferredDataSizes = t.getTransferredDataSize();
-                List<Task> sortedReversedByTransferredDataSize =  t.getPredecessors().stream().sorted((t1,t2) ->{
-                                        float s1 = transferredDataSizes.getOrDefault(t1.getId(),0.0f);
-                                        float s2 = transferredDataSizes.getOrDefault(t2.getId(),0.0f);
-                                        return (s2==s1)? 0: (s2<s1)? -1: 1;
-                                    }).collect(Collectors.toList());
-
-                // loop through all predecessor tasks
-                for(Task tp : sortedReversedByTransferredDataSize){
-
-                    // get the VM where predTask was assigned
-                    Vm v_tp = efficientSchedule.getAssignedVm(tp);
-
-                    // check if actual finish time of the task stays within the deadline and
-                    // cost of executing the task on v_tp stays within the budget
-                    efficientSchedule.assign(t,v_tp);
-                    if(t.actualFinishTime(v_tp,efficientSchedule)<=taskDeadline && t.cost(v_tp)<=taskBudget){
-                        v = v_tp;
-                        surplusBudget -= (t.cost(v) - t.minimumCost(dataCenter.getVmTypeList()));
-                        break;
-                    }
-
-                    // dismiss the assignment
-                    efficientSchedule.dismiss(t,v_tp);
-
-                }
-
-            }
-
-            // if the task is an entry task or the is still not assigned
-            if(t.getPredecessors().isEmpty() || v == null){
-
-                // minimum required processing speed of the task
-                float minimumNeededProcessingSpeed = t.minimumNeededProcessingSpeed(alpha, estdMakespan, fastestSchedule, efficientSchedule);
-
-                // filter the VM-types having maximum processing speed more than the minNeededProcessingSpeed
-                // then sort them in ascending order of maximum processing speed value
-                Comparator<VmType> compareByMaximumProcessingSpeed = Comparator.comparing(VmType::getMaximumProcessingSpeed);
-                List<VmType> sortedByMaximumProcessingSpeed = dataCenter.getVmTypeList().stream()
-                        .filter((tau) -> tau.getMaximumProcessingSpeed()>=minimumNeededProcessingSpeed)
-                        .sorted(compareByMaximumProcessingSpeed).collect(Collectors.toList());
-
-                // loop through the list of filtered VM types
-                for(VmType tau : sortedByMaximumProcessingSpeed){
-
-                    // get a idle/new VM of type tau
-                    Vm v_idle = dataCenter.findIdleVm(efficientSchedule,t,tau);
-                    if(v_idle == null){
-                        v_idle = dataCenter.launchNewVm(tau);
-                    }
-
-                    // check if cost of executing the task running on idleVm
-                    // stays within its budget; if so happens then make an assignment and update surplus budget
-                    if(v_idle!=null && t.cost(v_idle)<=taskBudget){
-                        v = v_idle;
-                        efficientSchedule.assign(t, v);
-                        surplusBudget -= (t.cost(v) - t.minimumCost(dataCenter.getVmTypeList()));
-                        break;
-                    }
-
-                }
-
-                // if still no such VM has been found
-                if(v == null){
-
-                    VmType tau_b = null;
-                    try {
-
-                        // among the set of VM types that can schedule t within its budget
-                        // find the type that has maximum processing speed
-                        tau_b = dataCenter.getVmTypeList().stream()
-                                .filter((tau) -> (t.getLength() / tau.getMaximumProcessingSpeed()) * tau.getCostPerSecond() <= taskBudget)
-                                .max(compareByMaximumProcessingSpeed).get();
-
-                        // get an idle/new VM of type tau_b
-                        Vm v_idle = dataCenter.findIdleVm(efficientSchedule, t, tau_b);
-                        if (v_idle == null) {
-                            v_idle = dataCenter.launchNewVm(tau_b);
-                        }
-
-                        // assign to it
-                        v = v_idle;
-                        efficientSchedule.assign(t, v);
-                        surplusBudget -= (t.cost(v) - t.minimumCost(dataCenter.getVmTypeList()));
-                    }
-                    catch (Exception exc){
-                        System.out.println("No idle/new VM found!");
-                        System.out.println(tau_b);
-                        System.out.println(t);
-                        exc.printStackTrace();
-                        System.exit(0);
-                    }
+            long start = System.nanoTime();
+            WorkflowCache.CachedWorkflow cached = cache.read(dax);
+            if(cached != null){
+                this.schedulingContext = null;
+                this.executionMatrix = null;
+                this.graph = null;
+                this.topology = null;
+                this.timingEngine = null;
+                this.name = cached.getName();
+                this.taskList = cached.getTaskList();
+                this.getExecutionMatrix();
+                this.getTopology();
+                if(this.verbose){
+                    System.out.printf("Loaded %s from cache: %d tasks in %.1f ms%n",
+                            dax.getName(), taskList.size(), (System.nanoTime() - start) / 1.0e6);
                 }
-
-            }
-
-            // log Task-ID,Surplus Budget,Task's Budget,Task's Min. Cost,Task's Max. Cost,VM-ID,Task's Cost,Update
-            try {
-                br.write(t.getId() + "," +
-                        surplusBudgetForThisRound + "," +
-                        taskBudget + "," +
-                        t.minimumCost(dataCenter.getVmTypeList()) + "," +
-                        t.maximumCost(dataCenter.getVmTypeList()) + "," +
-                        v.getId() + "," +
-                        t.cost(v) + "," +
-                        (t.cost(v) - t.minimumCost(dataCenter.getVmTypeList())) + "\n");
+                return;
             }
-            catch (IOException e) {
-                e.printStackTrace();
+        }
+        catch (IOException | RuntimeException e) {
+            if(this.verbose){
+                System.out.println("Ignoring unreadable cache of " + dax.getName() + ": " + e);
             }
-
         }
 
+        // otherwise: parse the DAX file and cache it
+        this.create(daxPath);
+        if(this.taskList.isEmpty()){
+            return;
+        }
         try {
-            br.close();
+            cache.write(this.name, this.getGraph(), dax, WorkflowCache.checksum(dax));
         }
         catch (IOException e) {
             e.printStackTrace();
         }
 
-        // reduce energy consumption by tasks and return the schedule
-        float actualMakespan = this.actualMakespan(efficientSchedule);
-        this.reduceEnergyConsumedByTasks(efficientSchedule, actualMakespan);
-        System.out.println("Processing: Done!          ");
-
-        return efficientSchedule;
-
     }
 
-    public Schedule computeModifiedESDWBSchedule(float alpha, float beta) {
-
-        System.out.println("Executing Modified-ESDWB...");
-
-        // create a data center
-        DataCenter dataCenter = new DataCenter();
-
-        // computing initial naive schedule on fastest VMs
-        VmType fastestType = dataCenter.findFastestVmType();
-        Schedule fastestSchedule = this.computeNaiveSchedule(fastestType);
-
-        // sort workflow-tasks in descending order of their priorities
-        List<Task> sortedReversedByPriority = this.taskList.stream().sorted((t1, t2) -> {
-            float pr1 = t1.priority(dataCenter.getVmTypeList(), fastestSchedule);
-            float pr2 = t2.priority(dataCenter.getVmTypeList(), fastestSchedule);
-            return (pr2==pr1)? 0: (pr2<pr1)? -1: 1;
-        }).collect(Collectors.toList());
-
-        // compute estimated makespan
-        float estdMakespan = this.estimatedMakespan(fastestSchedule);
+    // a predecessor transfers to a task the input files of the task it produces,
+    // found by one lookup per input file in the index of output files by name;
+    // when several predecessors produce files of the same name (e.g. fit.txt of
+    // Montage's mDiffFit jobs) each of them transfers its own file
+    private void computeTransferredDataSizes(Map<String,List<FileItem>> producers){
 
-        // compute initial surplus budget
-        float surplusBudget = 0.0f;
+        // marks the predecessors of the task at hand
+        int[] predecessorOf = new int[this.taskList.size()];
+        Arrays.fill(predecessorOf, -1);
 
-        // create empty schedule
-        Schedule efficientSchedule = new Schedule("Modified-ESDWB",this.name,this.taskList.size());
-
-        // for logging
-        File logFile = new File("src/main/resources/logs/" +
-                "Modified-ESDWB-" + this.name + "-" + this.taskList.size() + ".csv");
-        BufferedWriter br = null;
-        try {
-            if(!logFile.exists()){
-                logFile.createNewFile();
+        for(Task ti : this.taskList){
+            int i = ti.getIndex();
+            for(Task tp : ti.getPredecessors()){
+                predecessorOf[tp.getIndex()] = i;
             }
-            br = new BufferedWriter(new FileWriter(logFile));
-            br.write("Task,Surplus,Budget,Min. cost,Max. cost,Vm,Cost,Update\n");
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        // for progress
-        int iteration = 0;
-        int totalTasks = sortedReversedByPriority.size();
-
-        // loop through all tasks in workflow
-        for(Task t : sortedReversedByPriority){
-
-            // for progress
-            int progress = (int) (((float)iteration/totalTasks) * 100.0f);
-            System.out.print("Processing: " + progress + "% " + "\r");
-            iteration += 1;
-
-            // for logging
-            float surplusBudgetForThisRound = surplusBudget;
-
-            // initialize VM to null
-            Vm v = null;
-
-            // compute budget of the task
-            float taskBudget = t.modifiedBudget(surplusBudget, beta, dataCenter.getVmTypeList());
-
-            // compute the deadline of the task
-            float taskDeadline = t.deadline(alpha, estdMakespan, fastestSchedule);
-
-            // if the task is not an entry-task
-            if(!t.getPredecessors().isEmpty()){
-
-                // sort predecessors in descending order of the data sizes transferred to the task
-                Map<String,Float> transferredDataSizes = t.getTransferredDataSize();
-                List<Task> sortedReversedByTransferredDataSize =  t.getPredecessors().stream().sorted((t1,t2) ->{
-                    float s1 = transferredDataSizes.getOrDefault(t1.getId(),0.0f);
-                    float s2 = transferredDataSizes.getOrDefault(t2.getId(),0.0f);
-                    return (s2==s1)? 0: (s2<s1)? -1: 1;
-                }).collect(Collectors.toList());
-
-                // loop through all predecessor tasks
-                for(Task tp : sortedReversedByTransferredDataSize){
-
-                    // get the VM where predTask was assigned
-                    Vm v_tp = efficientSchedule.getAssignedVm(tp);
-
-                    // check if actual finish time of the task stays within the deadline and
-                    // cost of executing the task on v_tp stays within the budget
-                    efficientSchedule.assign(t,v_tp);
-                    if(t.actualFinishTime(v_tp,efficientSchedule)<=taskDeadline && t.cost(v_tp)<=taskBudget){
-                        v = v_tp;
-                        surplusBudget = (taskBudget - t.cost(v));
-                        break;
-                    }
-
-                    // dismiss the assignment
-                    efficientSchedule.dismiss(t,v_tp);
-
+            for(FileItem input : ti.getRequiredData()){
+                List<FileItem> outputs = producers.get(input.getName());
+                if(outputs == null){
+                    continue;
                 }
-
-            }
-
-            // if the task is an entry task or the is still not assigned
-            if(t.getPredecessors().isEmpty() || v == null){
-
-                // minimum required processing speed of the task
-                float minimumNeededProcessingSpeed = t.minimumNeededProcessingSpeed(alpha, estdMakespan, fastestSchedule, efficientSchedule);
-
-                // filter the VM-types having maximum processing speed more than the minNeededProcessingSpeed
-                // then sort them in ascending order of maximum processing speed value
-                Comparator<VmType> compareByMaximumProcessingSpeed = Comparator.comparing(VmType::getMaximumProcessingSpeed).reversed();
-                List<VmType> sortedByMaximumProcessingSpeed = dataCenter.getVmTypeList().stream()
-                        .filter((tau) -> tau.getMaximumProcessingSpeed()>=minimumNeededProcessingSpeed)
-                        .sorted(compareByMaximumProcessingSpeed).collect(Collectors.toList());
-
-                // loop through the list of filtered VM types
-                for(VmType tau : sortedByMaximumProcessingSpeed){
-
-                    // get a idle/new VM of type tau
-                    Vm v_idle = dataCenter.findIdleVm(efficientSchedule,t,tau);
-                    if(v_idle == null){
-                        v_idle = dataCenter.launchNewVm(tau);
+                if(outputs.size() == 1){
+                    Task tp = outputs.get(0).getProducer();
+                    if(predecessorOf[tp.getIndex()] == i){
+                        ti.addTransferredDataSize(tp.getId(), input.getSize());
                     }
-
-                    // check if cost of executing the task running on idleVm
-                    // stays within its budget; if so happens then make an assignment and update surplus budget
-                    if(v_idle!=null && t.cost(v_idle)<=taskBudget){
-                        v = v_idle;
-                        efficientSchedule.assign(t, v);
-                        surplusBudget = (taskBudget - t.cost(v));
-                        break;
+                    continue;
+                }
+                int count = 0;
+                FileItem found = null;
+                for(FileItem output : outputs){
+                    if(predecessorOf[output.getProducer().getIndex()] == i){
+                        count += 1;
+                        found = output;
                     }
-
                 }
-
-                // if still no such VM has been found
-                if(v == null){
-
-                    VmType tau_b = null;
-                    try {
-
-                        // among the set of VM types that can schedule t within its budget
-                        // find the type that has maximum processing speed
-                        tau_b = dataCenter.getVmTypeList().stream()
-                                .filter((tau) -> (t.getLength() / tau.getMaximumProcessingSpeed()) * tau.getCostPerSecond() <= taskBudget)
-                                .max(compareByMaximumProcessingSpeed).get();
-
-                        // get an idle/new VM of type tau_b
-                        Vm v_idle = dataCenter.findIdleVm(efficientSchedule, t, tau_b);
-                        if (v_idle == null) {
-                            v_idle = dataCenter.launchNewVm(tau_b);
+                if(count == 1){
+                    ti.addTransferredDataSize(found.getProducer().getId(), input.getSize());
+                }
+                else if(count > 1){
+                    for(FileItem output : outputs){
+                        if(predecessorOf[output.getProducer().getIndex()] == i){
+                            ti.addTransferredDataSize(output.getProducer().getId(), output.getSize());
                         }
-
-                        // assign to it
-                        v = v_idle;
-                        efficientSchedule.assign(t, v);
-                        surplusBudget = (taskBudget - t.cost(v));
-                    }
-                    catch (Exception exc){
-                        System.out.println("No idle/new VM found!");
-                        System.out.println(t);
-                        System.out.println(tau_b);
-                        exc.printStackTrace();
-                        System.exit(0);
                     }
-
                 }
-
             }
+        }
 
-            // log Task-ID,Surplus Budget,Task's Budget,Task's Min. Cost,Task's Max. Cost,VM-ID,Task's Cost,Update
-            try {
-                br.write(t.getId() + "," +
-                        surplusBudgetForThisRound + "," +
-                        taskBudget + "," +
-                        t.minimumCost(dataCenter.getVmTypeList()) + "," +
-                        t.maximumCost(dataCenter.getVmTypeList()) + "," +
-                        v.getId() + "," +
-                        t.cost(v) + "," +
-                        (taskBudget - t.cost(v)) + "\n");
-            }
-            catch (IOException e) {
-                e.printStackTrace();
-            }
+    }
 
-        }
+    // to create a naive-schedule: every task on a new VM of the type,
+    // launched in the topological order of the workflow
+    public Schedule computeNaiveSchedule(VmType vmType){
 
-        try {
-            br.close();
-        }
-        catch (IOException e) {
-            e.printStackTrace();
+        // a run of its own: a Data Center and the schedule to store
+        SchedulingRun run = new SchedulingRun(this, "Naive");
+        DataCenter dataCenter = run.getDataCenter();
+        WorkflowGraph graph = this.getGraph();
+        Schedule naiveSchedule = run.getSchedule();
+
+        // assign each task to a new VM from the Data Center
+        for(int i : this.getTopology().getTopologicalOrder()){
+            Vm theVm = dataCenter.launchNewVm(vmType);
+            naiveSchedule.assign(graph.getTask(i),theVm);
         }
+        return naiveSchedule;
+
+    }
 
-        // reduce energy consumption by tasks and return the schedule
-        float actualMakespan = this.actualMakespan(efficientSchedule);
-        this.reduceEnergyConsumedByTasks(efficientSchedule, actualMakespan);
-        System.out.println("Processing: Done!          ");
+    public Schedule computeESDWBSchedule(float alpha, float beta) {
+        return this.computeESDWBSchedule(alpha, beta, Placement.APPEND);
+    }
 
-        return efficientSchedule;
+    public Schedule computeESDWBSchedule(float alpha, float beta, Placement placement) {
+        return ESDWB.schedule(this, alpha, beta, placement);
+    }
 
+    public Schedule computeModifiedESDWBSchedule(float alpha, float beta) {
+        return this.computeModifiedESDWBSchedule(alpha, beta, Placement.APPEND);
     }
 
+    public Schedule computeModifiedESDWBSchedule(float alpha, float beta, Placement placement) {
+        return MODIFIED_ESDWB.schedule(this, alpha, beta, placement);
+    }
+
+    // DVFS: slows down the VMs of the schedule where tasks have slack; those VMs
+    // belong to the run that made the schedule, so the workflow stays as it is
     public void reduceEnergyConsumedByTasks(Schedule schedule, float actualMakespan){
 
         // now, energy reduction of tasks
@@ -719,20 +360,19 @@ public class Workflow {
                 float minimumNeededProcessingSpeed =
                         t.minimumNeededProcessingSpeedWithinPossibleExtendedFinishTime(actualMakespan,v,schedule);
 
-                // find the required processing speed for the task
-                List<Float> processingSpeedList = v.getType().getProcessingSpeedsInMips();
-                float newProcessingSpeed = processingSpeedList.stream()
-                        .filter( (ps) -> ps >= minimumNeededProcessingSpeed )
-                        .min(Float::compareTo).orElse(0.0f);
+                // find the DVFS level with the required processing speed for the task
+                VmType tau = v.getType();
+                int i = tau.slowestLevelAtLeast(minimumNeededProcessingSpeed);
+                float newProcessingSpeed = (i >= 0)? tau.getProcessingSpeed(i): 0.0f;
 
                 // if required processing speed is less than maximum processing speed
-                if(newProcessingSpeed!=0.0f && newProcessingSpeed<v.getType().getMaximumProcessingSpeed()){
-                    int i = v.getType().getProcessingSpeedsInMips().indexOf(newProcessingSpeed);
-                    float newFrequency = v.getType().getFrequenciesInGHz().get(i);
-                    float newVoltageLevel = v.getType().getVoltageLevelsInVolt().get(i);
+                if(newProcessingSpeed!=0.0f && newProcessingSpeed<tau.getMaximumProcessingSpeed()){
+                    float newFrequency = tau.getFrequency(i);
+                    float newVoltageLevel = tau.getVoltageLevel(i);
                     v.setFrequency(newFrequency);
                     v.setVoltageLevel(newVoltageLevel);
                     v.setProcessingSpeed(newProcessingSpeed);
+                    schedule.invalidate(v);
                 }
 
             }
@@ -746,15 +386,145 @@ public class Workflow {
     }
 
     public void setName(String name) {
+        checkNotFrozen();
         this.name = name;
     }
 
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        this.logging = verbose;
+    }
+
+    public boolean isLogging() {
+        return logging;
+    }
+
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+    }
+
     public List<Task> getTaskList() {
         return taskList;
     }
 
+    // the schedules and matrices of the workflow are indexed by Task.getIndex(),
+    // so every task gets its position in the list as its index
     public void setTaskList(List<Task> taskList) {
+        checkNotFrozen();
+        for(int i = 0; i < taskList.size(); i++){
+            taskList.get(i).setIndex(i);
+        }
         this.taskList = taskList;
+        this.schedulingContext = null;
+        this.executionMatrix = null;
+        this.graph = null;
+        this.topology = null;
+        this.timingEngine = null;
+    }
+
+    // to make the workflow read-only and compute everything the runs share, so
+    // any number of runs can then schedule it concurrently without locking
+    public synchronized Workflow freeze() {
+        if(this.frozen){
+            return this;
+        }
+        this.getGraph();
+        this.getExecutionMatrix();
+        this.getTopology();
+        this.getSchedulingContext();
+        this.getTimingEngine();
+        for(Task ti : this.taskList){
+            ti.freeze();
+        }
+        this.taskList = Collections.unmodifiableList(this.taskList);
+        this.frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen(){
+        if(this.frozen){
+            throw new IllegalStateException("Workflow " + name + " is frozen");
+        }
+    }
+
+    // the lazily built parts below are read without locking once frozen
+
+    public SchedulingContext getSchedulingContext() {
+        if(frozen){
+            return schedulingContext;
+        }
+        synchronized(this){
+            if(schedulingContext == null){
+                schedulingContext = new SchedulingContext(this);
+            }
+            return schedulingContext;
+        }
+    }
+
+    public WorkflowGraph getGraph() {
+        if(frozen){
+            return graph;
+        }
+        synchronized(this){
+            if(graph == null){
+                graph = new WorkflowGraph(this.taskList);
+            }
+            return graph;
+        }
+    }
+
+    public ExecutionMatrix getExecutionMatrix() {
+        if(frozen){
+            return executionMatrix;
+        }
+        synchronized(this){
+            if(executionMatrix == null){
+                executionMatrix = new ExecutionMatrix(this.taskList, new DataCenter().getVmTypeList());
+            }
+            return executionMatrix;
+        }
+    }
+
+    public WorkflowTopology getTopology() {
+        if(frozen){
+            return topology;
+        }
+        synchronized(this){
+            if(topology == null){
+                topology = new WorkflowTopology(this.getGraph(), new DataCenter().findFastestVmType());
+            }
+            return topology;
+        }
+    }
+
+    public TimingEngine getTimingEngine() {
+        if(frozen){
+            return timingEngine;
+        }
+        synchronized(this){
+            if(timingEngine == null){
+                timingEngine = new TimingEngine(this);
+            }
+            return timingEngine;
+        }
+    }
+
+    // tasks of the critical path on the fastest VM type, from entry to exit
+    public List<Task> getCriticalPath() {
+        WorkflowGraph graph = this.getGraph();
+        List<Task> criticalPath = new ArrayList<>();
+        for(int i : this.getTopology().getCriticalPath()){
+            criticalPath.add(graph.getTask(i));
+        }
+        return criticalPath;
     }
 
     public void log(){
@@ -0,0 +1,282 @@
+package org.example.simulator.workflow;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// a compact binary form of a parsed workflow, so a DAX file is parsed once and
+// later runs map the cache file into memory instead; a cache is used only while
+// its DAX file has the size and modification time it was written for, or, when
+// only the modification time changed, while the checksum of the DAX file still
+// matches, so the whole DAX file is read only after it was touched
+//
+// layout (big-endian):
+//   int magic, int version, long DAX checksum, long DAX length, long DAX modification time
+//   int number of strings, then per string: int byte count, UTF-8 bytes
+//   int workflow name, int n tasks, int m edges
+//   int[n] task ids, int[n] task names (both into the string table)
+//   float[n] lengths
+//   int[n+1] predecessor offsets, int[m] predecessors, float[m] transferred data sizes
+//   int[n+1] successor offsets, int[m] successors
+public class WorkflowCache {
+
+    public static final String CACHE_DIR_PROPERTY = "workflow.cache.dir";
+
+    public static final String DEFAULT_CACHE_DIR = "target/workflow-cache";
+
+    private static final int MAGIC = 0x57464331; // "WFC1"
+
+    // to be bumped whenever the layout, or how its sections are produced,
+    // changes, so caches of an older build are parsed again instead of read
+    private static final int VERSION = 3;
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+
+    // offset of the DAX modification time in the header
+    private static final int LAST_MODIFIED_OFFSET = 4 + 4 + 8 + 8;
+
+    private File cacheDir;
+
+    // the directory of -Dworkflow.cache.dir if set, otherwise target/workflow-cache
+    public WorkflowCache(){
+        this(new File(System.getProperty(CACHE_DIR_PROPERTY, DEFAULT_CACHE_DIR)));
+    }
+
+    public WorkflowCache(File cacheDir){
+        this.cacheDir = cacheDir;
+    }
+
+    public File cacheFileOf(File dax){
+        return new File(cacheDir, dax.getName() + ".wfc");
+    }
+
+    // CRC-32 of the content of a DAX file
+    public static long checksum(File dax) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        try(FileChannel channel = FileChannel.open(dax.toPath(), StandardOpenOption.READ)){
+            while(channel.read(buffer) > 0){
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    // to write a workflow parsed from a DAX file with the given checksum
+    public void write(String name, WorkflowGraph graph, File dax, long checksum) throws IOException {
+
+        int n = graph.size();
+        int m = graph.edgeCount();
+
+        // intern ids and names
+        Map<String,Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int nameRef = intern(name, stringIndex, strings);
+        int[] idRefs = new int[n];
+        int[] nameRefs = new int[n];
+        for(int i = 0; i < n; i++){
+            idRefs[i] = intern(graph.getTask(i).getId(), stringIndex, strings);
+            nameRefs[i] = intern(graph.getTask(i).getName(), stringIndex, strings);
+        }
+
+        int stringBytes = 0;
+        for(byte[] bytes : strings){
+            stringBytes += 4 + bytes.length;
+        }
+        int size = HEADER_SIZE + 4 + stringBytes + 4 + 4 + 4
+                + 4 * n + 4 * n + 4 * n
+                + 4 * (n + 1) + 4 * m + 4 * m
+                + 4 * (n + 1) + 4 * m;
+
+        // both directions of the edges as compressed sparse rows of the graph
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(checksum).putLong(dax.length()).putLong(dax.lastModified());
+        buffer.putInt(strings.size());
+        for(byte[] bytes : strings){
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        buffer.putInt(nameRef).putInt(n).putInt(m);
+        putInts(buffer, idRefs);
+        putInts(buffer, nameRefs);
+        for(int i = 0; i < n; i++){
+            buffer.putFloat(graph.getLength(i));
+        }
+        putInts(buffer, graph.getPredecessorOffsets());
+        putInts(buffer, graph.getPredecessors());
+        for(float dataSize : graph.getPredecessorDataSizes()){
+            buffer.putFloat(dataSize);
+        }
+        putInts(buffer, graph.getSuccessorOffsets());
+        putInts(buffer, graph.getSuccessors());
+        buffer.flip();
+
+        // write to a temporary file first, so readers never see half a cache
+        Files.createDirectories(cacheDir.toPath());
+        File cacheFile = cacheFileOf(dax);
+        File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheDir);
+        try(FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)){
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }
+        try {
+            Files.move(tempFile.toPath(), cacheFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values){
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + 4 * values.length);
+    }
+
+    private static int intern(String s, Map<String,Integer> stringIndex, List<byte[]> strings){
+        Integer ref = stringIndex.get(s);
+        if(ref == null){
+            ref = strings.size();
+            stringIndex.put(s, ref);
+            strings.add(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return ref;
+    }
+
+    // the name and tasks of the workflow cached for the current content of a
+    // DAX file, or null if there is no such cache; the tasks carry their
+    // lengths, edges and transferred data sizes but no input files
+    public CachedWorkflow read(File dax) throws IOException {
+
+        File cacheFile = cacheFileOf(dax);
+        if(!cacheFile.isFile()){
+            return null;
+        }
+
+        MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)){
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION){
+            return null;
+        }
+        long checksum = buffer.getLong();
+        if(buffer.getLong() != dax.length()){
+            return null;
+        }
+
+        // a DAX file touched since the cache was written is checked by its
+        // content, and the cache stamped with its new modification time
+        long lastModified = dax.lastModified();
+        if(buffer.getLong() != lastModified){
+            if(checksum(dax) != checksum){
+                return null;
+            }
+            stamp(cacheFile, lastModified);
+        }
+
+        String[] strings = new String[buffer.getInt()];
+        byte[] bytes = new byte[64];
+        for(int k = 0; k < strings.length; k++){
+            int length = buffer.getInt();
+            if(length > bytes.length){
+                bytes = new byte[Math.max(length, 2 * bytes.length)];
+            }
+            buffer.get(bytes, 0, length);
+            strings[k] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        String name = strings[buffer.getInt()];
+        int n = buffer.getInt();
+        int m = buffer.getInt();
+
+        int[] idRefs = readInts(buffer, n);
+        int[] nameRefs = readInts(buffer, n);
+        float[] lengths = readFloats(buffer, n);
+        int[] predecessorOffsets = readInts(buffer, n + 1);
+        int[] predecessors = readInts(buffer, m);
+        float[] dataSizes = readFloats(buffer, m);
+        int[] successorOffsets = readInts(buffer, n + 1);
+        int[] successors = readInts(buffer, m);
+
+        List<Task> taskList = new ArrayList<>(n);
+        for(int i = 0; i < n; i++){
+            Task ti = new Task(strings[idRefs[i]], strings[nameRefs[i]], lengths[i]);
+            ti.setIndex(i);
+            taskList.add(ti);
+        }
+        for(int i = 0; i < n; i++){
+            Task ti = taskList.get(i);
+            for(int e = predecessorOffsets[i]; e < predecessorOffsets[i + 1]; e++){
+                Task tp = taskList.get(predecessors[e]);
+                ti.addPredecessor(tp);
+                ti.getTransferredDataSize().put(tp.getId(), dataSizes[e]);
+            }
+            for(int e = successorOffsets[i]; e < successorOffsets[i + 1]; e++){
+                ti.addSuccessor(taskList.get(successors[e]));
+            }
+        }
+        return new CachedWorkflow(name, taskList);
+    }
+
+    // a cache that cannot be stamped is still valid, the next run
+    // only checks the content of its DAX file again
+    private static void stamp(File cacheFile, long lastModified){
+        ByteBuffer buffer = ByteBuffer.allocate(8).putLong(0, lastModified);
+        try(FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.WRITE)){
+            channel.write(buffer, LAST_MODIFIED_OFFSET);
+        }
+        catch (IOException e) {
+            // keep the old stamp
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count){
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+
+    private static float[] readFloats(ByteBuffer buffer, int count){
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+
+    // name and tasks of a workflow read from a cache
+    public static class CachedWorkflow {
+
+        private String name;
+
+        private List<Task> taskList;
+
+        CachedWorkflow(String name, List<Task> taskList){
+            this.name = name;
+            this.taskList = taskList;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Task> getTaskList() {
+            return taskList;
+        }
+
+    }
+
+}
@@ -0,0 +1,507 @@
+package org.example.simulator.workflow;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// generates synthetic workflows shaped like the Pegasus workflows (CyberShake,
+// Montage, Epigenomics, Inspiral and Sipht) at any size, for scaling tests well
+// past the bundled DAX files; runtimes and file sizes are drawn around the
+// means of each job type in the bundled files by a seeded Random, so a shape,
+// size and seed always give the same workflow; as with the Pegasus workflow
+// generator the number of jobs is close to the requested size, not equal to it
+//
+// every job writes one output file that each of its children reads, and entry
+// jobs read one input file of their own, so the transferred data size of an
+// edge is the size of the output file of its parent
+public class WorkflowGenerator {
+
+    public static final String DAX_NAMESPACE = "http://pegasus.isi.edu/schema/DAX";
+
+    // directory of the DAX files written by main
+    public static final String DEFAULT_OUTPUT_DIR = "target/dax";
+
+    public enum Shape {
+
+        CYBERSHAKE("CyberShake"),
+        MONTAGE("Montage"),
+        EPIGENOMICS("Epigenomics"),
+        INSPIRAL("Inspiral"),
+        SIPHT("Sipht");
+
+        private String name;
+
+        Shape(String name){
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Shape of(String name){
+            for(Shape shape : values()){
+                if(shape.name.equalsIgnoreCase(name) || shape.name().equalsIgnoreCase(name)){
+                    return shape;
+                }
+            }
+            throw new IllegalArgumentException("Unknown workflow shape: " + name);
+        }
+
+    }
+
+    // a kind of job: mean and standard deviation of its runtime in seconds,
+    // mean size of its output file and, for entry jobs, of its input file, in bytes
+    private static class JobType {
+
+        private String name;
+
+        private float meanRuntime;
+
+        private float sdRuntime;
+
+        private float meanOutputSize;
+
+        private float meanInputSize;
+
+        JobType(String name, float meanRuntime, float sdRuntime, float meanOutputSize, float meanInputSize){
+            this.name = name;
+            this.meanRuntime = meanRuntime;
+            this.sdRuntime = sdRuntime;
+            this.meanOutputSize = meanOutputSize;
+            this.meanInputSize = meanInputSize;
+        }
+
+    }
+
+    // CyberShake
+    private static final JobType EXTRACT_SGT = new JobType("ExtractSGT", 126.12f, 32.17f, 4.72e8f, 4.0e10f);
+    private static final JobType SEISMOGRAM_SYNTHESIS = new JobType("SeismogramSynthesis", 43.65f, 12.35f, 2.4e4f, 0.0f);
+    private static final JobType PEAK_VAL_CALC_OKAYA = new JobType("PeakValCalcOkaya", 1.08f, 0.31f, 216.0f, 0.0f);
+    private static final JobType ZIP_SEIS = new JobType("ZipSeis", 9.38f, 0.0f, 2.14e6f, 0.0f);
+    private static final JobType ZIP_PSA = new JobType("ZipPSA", 3.81f, 0.0f, 1.06e4f, 0.0f);
+
+    // Montage
+    private static final JobType M_PROJECT_PP = new JobType("mProjectPP", 13.58f, 0.24f, 8.33e6f, 4.22e6f);
+    private static final JobType M_DIFF_FIT = new JobType("mDiffFit", 10.59f, 0.10f, 2.89e5f, 0.0f);
+    private static final JobType M_CONCAT_FIT = new JobType("mConcatFit", 52.96f, 0.0f, 1.39e5f, 0.0f);
+    private static final JobType M_BG_MODEL = new JobType("mBgModel", 89.12f, 0.0f, 8.83e3f, 0.0f);
+    private static final JobType M_BACKGROUND = new JobType("mBackground", 10.74f, 0.17f, 8.32e6f, 0.0f);
+    private static final JobType M_IMG_TBL = new JobType("mImgTbl", 65.91f, 0.0f, 6.74e4f, 0.0f);
+    private static final JobType M_ADD = new JobType("mAdd", 99.53f, 0.0f, 6.1e8f, 0.0f);
+    private static final JobType M_SHRINK = new JobType("mShrink", 22.25f, 0.0f, 1.22e7f, 0.0f);
+    private static final JobType M_JPEG = new JobType("mJPEG", 2.52f, 0.0f, 1.42e6f, 0.0f);
+
+    // Epigenomics
+    private static final JobType FASTQ_SPLIT = new JobType("fastqSplit", 54.53f, 17.11f, 1.05e7f, 3.69e8f);
+    private static final JobType FILTER_CONTAMS = new JobType("filterContams", 1.39f, 1.19f, 5.29e6f, 0.0f);
+    private static final JobType SOL2SANGER = new JobType("sol2sanger", 0.37f, 0.32f, 4.27e6f, 0.0f);
+    private static final JobType FASTQ2BFQ = new JobType("fastq2bfq", 0.65f, 0.61f, 1.01e6f, 0.0f);
+    private static final JobType MAP = new JobType("map", 15703.99f, 4072.09f, 1.1e6f, 0.0f);
+    private static final JobType MAP_MERGE = new JobType("mapMerge", 35.31f, 47.58f, 6.34e7f, 0.0f);
+    private static final JobType MAQ_INDEX = new JobType("maqIndex", 0.21f, 0.0f, 4.29e6f, 0.0f);
+    private static final JobType PILEUP = new JobType("pileup", 6034.50f, 0.0f, 9.44e6f, 0.0f);
+
+    // Inspiral
+    private static final JobType TMPLT_BANK = new JobType("TmpltBank", 18.14f, 0.43f, 9.88e5f, 4.05e7f);
+    private static final JobType INSPIRAL = new JobType("Inspiral", 462.60f, 128.73f, 3.11e5f, 0.0f);
+    private static final JobType THINCA = new JobType("Thinca", 5.35f, 0.21f, 3.62e4f, 0.0f);
+    private static final JobType TRIG_BANK = new JobType("TrigBank", 5.12f, 0.32f, 1.29e4f, 0.0f);
+
+    // Sipht
+    private static final JobType PATSER = new JobType("Patser", 1.28f, 0.24f, 9.08e4f, 5.53e6f);
+    private static final JobType PATSER_CONCATE = new JobType("Patser_concate", 0.08f, 0.02f, 1.85e6f, 0.0f);
+    private static final JobType FINDTERM = new JobType("Findterm", 1576.42f, 197.35f, 4.18e6f, 5.95e6f);
+    private static final JobType RNA_MOTIF = new JobType("RNAMotif", 32.18f, 6.23f, 1.07e6f, 5.38e6f);
+    private static final JobType TRANSTERM = new JobType("Transterm", 55.60f, 4.94f, 4.34e5f, 5.75e6f);
+    private static final JobType BLAST = new JobType("Blast", 2312.50f, 357.45f, 5.25e6f, 2.59e8f);
+    private static final JobType SRNA = new JobType("SRNA", 444.05f, 69.21f, 6.9e6f, 0.0f);
+    private static final JobType FFN_PARSE = new JobType("FFN_Parse", 1.50f, 0.18f, 7.49e5f, 0.0f);
+    private static final JobType BLAST_CANDIDATE = new JobType("Blast_candidate", 5.14f, 0.73f, 1.65e4f, 0.0f);
+    private static final JobType BLAST_QRNA = new JobType("Blast_QRNA", 1301.29f, 35.23f, 3.64e6f, 0.0f);
+    private static final JobType BLAST_SYNTENY = new JobType("Blast_synteny", 33.00f, 0.0f, 9.0e5f, 0.0f);
+    private static final JobType BLAST_PARALOGUES = new JobType("Blast_paralogues", 4.10f, 1.23f, 7.99e5f, 0.0f);
+    private static final JobType SRNA_ANNOTATE = new JobType("SRNA_annotate", 1.42f, 0.13f, 1.37e6f, 0.0f);
+
+    private Shape shape;
+
+    private Random random;
+
+    // per job, in the order of generation: type, runtime, output and input file
+    // sizes, and the jobs whose output files it reads
+    private List<JobType> types = new ArrayList<>();
+
+    private float[] runtimes = new float[1024];
+
+    private float[] outputSizes = new float[1024];
+
+    private float[] inputSizes = new float[1024];
+
+    private List<int[]> parents = new ArrayList<>();
+
+    private int edgeCount;
+
+    public WorkflowGenerator(Shape shape, int size, long seed){
+        this.shape = shape;
+        this.random = new Random(seed);
+        switch(shape){
+            case CYBERSHAKE:
+                generateCyberShake(size);
+                break;
+            case MONTAGE:
+                generateMontage(size);
+                break;
+            case EPIGENOMICS:
+                generateEpigenomics(size);
+                break;
+            case INSPIRAL:
+                generateInspiral(size);
+                break;
+            case SIPHT:
+                generateSipht(size);
+                break;
+        }
+    }
+
+    // sites with their strain Green tensors, a seismogram and its peak values
+    // per rupture variation, and two zip jobs collecting all of them
+    private void generateCyberShake(int size){
+        int sites = Math.max(1, size / 250);
+        int variations = Math.max(1, (size - sites - 2) / 2);
+        int[] extracts = new int[sites];
+        for(int s = 0; s < sites; s++){
+            extracts[s] = add(EXTRACT_SGT);
+        }
+        int[] seismograms = new int[variations];
+        int[] peaks = new int[variations];
+        for(int k = 0; k < variations; k++){
+            seismograms[k] = add(SEISMOGRAM_SYNTHESIS, extracts[(int) ((long) k * sites / variations)]);
+            peaks[k] = add(PEAK_VAL_CALC_OKAYA, seismograms[k]);
+        }
+        add(ZIP_SEIS, seismograms);
+        add(ZIP_PSA, peaks);
+    }
+
+    // projections of the images of a square mosaic, a difference fit per pair of
+    // overlapping neighbours, a global background model, a background correction
+    // per projection and the co-addition of the corrected images
+    private void generateMontage(int size){
+        int n = Math.max(2, (int) ((size - 6) / 5.95f));
+        int width = (int) Math.ceil(Math.sqrt(n));
+        int[] projections = new int[n];
+        for(int p = 0; p < n; p++){
+            projections[p] = add(M_PROJECT_PP);
+        }
+        int[] diffs = new int[4 * n];
+        int diffCount = 0;
+        for(int p = 0; p < n; p++){
+            int column = p % width;
+            for(int offset : new int[]{1, width - 1, width, width + 1}){
+                int q = p + offset;
+                boolean wraps = (offset == 1 && column == width - 1)
+                        || (offset == width - 1 && column == 0)
+                        || (offset == width + 1 && column == width - 1);
+                if(q < n && q != p && !wraps){
+                    diffs[diffCount++] = add(M_DIFF_FIT, projections[p], projections[q]);
+                }
+            }
+        }
+        int concat = add(M_CONCAT_FIT, Arrays.copyOf(diffs, diffCount));
+        int model = add(M_BG_MODEL, concat);
+        int[] backgrounds = new int[n];
+        for(int p = 0; p < n; p++){
+            backgrounds[p] = add(M_BACKGROUND, model, projections[p]);
+        }
+        int table = add(M_IMG_TBL, backgrounds);
+        int mosaic = add(M_ADD, table);
+        int shrunk = add(M_SHRINK, mosaic);
+        add(M_JPEG, shrunk);
+    }
+
+    // lanes of sequence data split into chunks, each chunk filtered, converted
+    // and mapped by a chain of four jobs, the maps merged per lane and globally,
+    // then indexed and piled up
+    private void generateEpigenomics(int size){
+        int lanes = Math.max(1, Math.round((size - 3) / 142.0f));
+        int chunks = Math.max(1, (size - 3 - 2 * lanes) / (4 * lanes));
+        int[] laneMerges = new int[lanes];
+        for(int l = 0; l < lanes; l++){
+            int split = add(FASTQ_SPLIT);
+            int[] maps = new int[chunks];
+            for(int c = 0; c < chunks; c++){
+                int filtered = add(FILTER_CONTAMS, split);
+                int converted = add(SOL2SANGER, filtered);
+                int binary = add(FASTQ2BFQ, converted);
+                maps[c] = add(MAP, binary);
+            }
+            laneMerges[l] = add(MAP_MERGE, maps);
+        }
+        int merge = add(MAP_MERGE, laneMerges);
+        int index = add(MAQ_INDEX, merge);
+        add(PILEUP, index);
+    }
+
+    // groups of detector blocks: a template bank and an inspiral search per
+    // block, a coincidence test per group, then a triggered bank and a second
+    // inspiral search per block and a second coincidence test
+    private void generateInspiral(int size){
+        int groups = Math.max(1, Math.round(size / 50.0f));
+        int blocks = Math.max(1, (size / groups - 2) / 4);
+        for(int g = 0; g < groups; g++){
+            int[] firstInspirals = new int[blocks];
+            for(int b = 0; b < blocks; b++){
+                int bank = add(TMPLT_BANK);
+                firstInspirals[b] = add(INSPIRAL, bank);
+            }
+            int firstThinca = add(THINCA, firstInspirals);
+            int[] secondInspirals = new int[blocks];
+            for(int b = 0; b < blocks; b++){
+                int bank = add(TRIG_BANK, firstThinca);
+                secondInspirals[b] = add(INSPIRAL, bank);
+            }
+            add(THINCA, secondInspirals);
+        }
+    }
+
+    // independent searches for small untranslated RNAs, one per replicon,
+    // each with its Patser jobs and the fixed pipeline around SRNA
+    private void generateSipht(int size){
+        int patsers = 20;
+        int instances = Math.max(1, Math.round(size / (patsers + 12.0f)));
+        for(int k = 0; k < instances; k++){
+            int[] patserJobs = new int[patsers];
+            for(int p = 0; p < patsers; p++){
+                patserJobs[p] = add(PATSER);
+            }
+            int concate = add(PATSER_CONCATE, patserJobs);
+            int findterm = add(FINDTERM);
+            int rnaMotif = add(RNA_MOTIF);
+            int transterm = add(TRANSTERM);
+            int blast = add(BLAST);
+            int srna = add(SRNA, findterm, rnaMotif, transterm, blast);
+            int ffnParse = add(FFN_PARSE, srna);
+            int candidate = add(BLAST_CANDIDATE, srna);
+            int qrna = add(BLAST_QRNA, srna);
+            int synteny = add(BLAST_SYNTENY, srna, ffnParse);
+            int paralogues = add(BLAST_PARALOGUES, srna);
+            add(SRNA_ANNOTATE, concate, srna, candidate, qrna, synteny, paralogues);
+        }
+    }
+
+    // to add a job of a type reading the output files of the given jobs;
+    // runtimes are normal around the mean of the type, at least a tenth of it,
+    // and file sizes uniform within 10% of the mean of the type
+    private int add(JobType type, int... parentJobs){
+        int i = types.size();
+        if(i == runtimes.length){
+            runtimes = Arrays.copyOf(runtimes, 2 * i);
+            outputSizes = Arrays.copyOf(outputSizes, 2 * i);
+            inputSizes = Arrays.copyOf(inputSizes, 2 * i);
+        }
+        types.add(type);
+        runtimes[i] = Math.max(0.1f * type.meanRuntime,
+                type.meanRuntime + type.sdRuntime * (float) random.nextGaussian());
+        outputSizes[i] = type.meanOutputSize * (0.9f + 0.2f * random.nextFloat());
+        inputSizes[i] = (parentJobs.length == 0)? type.meanInputSize * (0.9f + 0.2f * random.nextFloat()): 0.0f;
+        parents.add(parentJobs);
+        edgeCount += parentJobs.length;
+        return i;
+    }
+
+    private String idOf(int i){
+        String digits = Integer.toString(i);
+        int width = Math.max(5, Integer.toString(types.size() - 1).length());
+        StringBuilder id = new StringBuilder(2 + width).append("ID");
+        for(int k = digits.length(); k < width; k++){
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    private String outputFileOf(int i, String id){
+        return types.get(i).name + "_" + id + ".out";
+    }
+
+    private String inputFileOf(int i, String id){
+        return types.get(i).name + "_" + id + ".in";
+    }
+
+    // to create the workflow in memory, as parsing its DAX file would
+    public Workflow createWorkflow(){
+        float processingSpeed = Workflow.referenceVmType().getMaximumProcessingSpeed();
+        int n = types.size();
+        List<Task> taskList = new ArrayList<>(n);
+        String[] ids = new String[n];
+        for(int i = 0; i < n; i++){
+            ids[i] = idOf(i);
+            Task ti = new Task(ids[i], types.get(i).name, runtimes[i] * processingSpeed);
+            ti.setIndex(i);
+            if(parents.get(i).length == 0){
+                ti.getRequiredData().add(new FileItem(inputFileOf(i, ids[i]), inputSizes[i]));
+            }
+            taskList.add(ti);
+        }
+        for(int i = 0; i < n; i++){
+            Task ti = taskList.get(i);
+            for(int p : parents.get(i)){
+                Task tp = taskList.get(p);
+                ti.addPredecessor(tp);
+                tp.addSuccessor(ti);
+                ti.getRequiredData().add(new FileItem(outputFileOf(p, ids[p]), outputSizes[p]));
+                ti.addTransferredDataSize(tp.getId(), outputSizes[p]);
+            }
+        }
+        Workflow workflow = new Workflow();
+        workflow.create(shape.getName(), taskList);
+        return workflow;
+    }
+
+    // to write the workflow as a DAX file that DaxParser reads back
+    // into the same tasks as createWorkflow
+    public void writeDax(File dax) throws IOException, XMLStreamException {
+        File dir = dax.getAbsoluteFile().getParentFile();
+        if(dir != null && !dir.isDirectory() && !dir.mkdirs()){
+            throw new IOException("Cannot create directory " + dir);
+        }
+        try(OutputStream out = new BufferedOutputStream(new FileOutputStream(dax), 1 << 16)){
+            writeDax(out);
+        }
+    }
+
+    public void writeDax(OutputStream out) throws XMLStreamException {
+        int n = types.size();
+        String[] ids = new String[n];
+        int childCount = 0;
+        for(int i = 0; i < n; i++){
+            ids[i] = idOf(i);
+            if(parents.get(i).length > 0){
+                childCount += 1;
+            }
+        }
+
+        XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+        try {
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeComment(" synthetic " + shape.getName() + " workflow generated by WorkflowGenerator ");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("adag");
+            writer.writeDefaultNamespace(DAX_NAMESPACE);
+            writer.writeAttribute("version", "2.1");
+            writer.writeAttribute("count", "1");
+            writer.writeAttribute("index", "0");
+            writer.writeAttribute("name", "test");
+            writer.writeAttribute("jobCount", Integer.toString(n));
+            writer.writeAttribute("fileCount", "0");
+            writer.writeAttribute("childCount", Integer.toString(childCount));
+
+            for(int i = 0; i < n; i++){
+                writer.writeCharacters("\n  ");
+                writer.writeStartElement("job");
+                writer.writeAttribute("id", ids[i]);
+                writer.writeAttribute("namespace", shape.getName());
+                writer.writeAttribute("name", types.get(i).name);
+                writer.writeAttribute("version", "1.0");
+                writer.writeAttribute("runtime", Float.toString(runtimes[i]));
+                if(parents.get(i).length == 0){
+                    writeUses(writer, inputFileOf(i, ids[i]), "input", inputSizes[i]);
+                }
+                for(int p : parents.get(i)){
+                    writeUses(writer, outputFileOf(p, ids[p]), "input", outputSizes[p]);
+                }
+                writeUses(writer, outputFileOf(i, ids[i]), "output", outputSizes[i]);
+                writer.writeCharacters("\n  ");
+                writer.writeEndElement();
+            }
+
+            for(int i = 0; i < n; i++){
+                if(parents.get(i).length == 0){
+                    continue;
+                }
+                writer.writeCharacters("\n  ");
+                writer.writeStartElement("child");
+                writer.writeAttribute("ref", ids[i]);
+                for(int p : parents.get(i)){
+                    writer.writeCharacters("\n    ");
+                    writer.writeEmptyElement("parent");
+                    writer.writeAttribute("ref", ids[p]);
+                }
+                writer.writeCharacters("\n  ");
+                writer.writeEndElement();
+            }
+
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private static void writeUses(XMLStreamWriter writer, String file, String link, float size) throws XMLStreamException {
+        writer.writeCharacters("\n    ");
+        writer.writeEmptyElement("uses");
+        writer.writeAttribute("file", file);
+        writer.writeAttribute("link", link);
+        writer.writeAttribute("register", "false");
+        writer.writeAttribute("transfer", "true");
+        writer.writeAttribute("optional", "false");
+        writer.writeAttribute("type", "data");
+        writer.writeAttribute("size", Float.toString(size));
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    public int getJobCount() {
+        return types.size();
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // the usual name of the DAX file of the workflow, e.g. Montage_10002.xml
+    public String getDaxFileName() {
+        return shape.getName() + "_" + types.size() + ".xml";
+    }
+
+    // to write synthetic DAX files:
+    // WorkflowGenerator <shape> <size>[,<size>...] [seed] [output directory]
+    // e.g. WorkflowGenerator Montage 10000,100000,1000000 42
+    public static void main(String[] args) throws Exception {
+
+        if(args.length < 2){
+            System.out.println("Usage: WorkflowGenerator <shape> <size>[,<size>...] [seed] [output directory]");
+            System.out.println("Shapes: CyberShake, Montage, Epigenomics, Inspiral, Sipht");
+            return;
+        }
+        Shape shape = Shape.of(args[0]);
+        long seed = (args.length > 2)? Long.parseLong(args[2]): 0L;
+        File outputDir = new File((args.length > 3)? args[3]: DEFAULT_OUTPUT_DIR);
+
+        for(String size : args[1].split(",")){
+            long start = System.nanoTime();
+            WorkflowGenerator generator = new WorkflowGenerator(shape, Integer.parseInt(size.trim()), seed);
+            File dax = new File(outputDir, generator.getDaxFileName());
+            generator.writeDax(dax);
+            System.out.printf("Generated %s: %d jobs, %d edges in %.1f ms%n", dax.getPath(),
+                    generator.getJobCount(), generator.getEdgeCount(), (System.nanoTime() - start) / 1.0e6);
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.DataCenter;
+import org.example.simulator.vm.Vm;
+
+import java.util.Arrays;
+import java.util.List;
+
+// the DAG of a workflow in compressed sparse rows over the task indices
+// (Task.getIndex()): the predecessors of task i are
+// predecessors[predecessorOffsets[i] .. predecessorOffsets[i+1]), in the order
+// of Task.getPredecessors(), with the data size each of them transfers to task i
+// in the parallel predecessorDataSizes; successors are laid out the same way
+public class WorkflowGraph {
+
+    private Task[] tasks;
+
+    private float[] lengths;
+
+    private int[] predecessorOffsets;
+
+    private int[] predecessors;
+
+    private float[] predecessorDataSizes;
+
+    // per task, the positions of its predecessor edges in descending order of
+    // the data sizes they transfer, ties in the order of the predecessors
+    private int[] predecessorsByDataSize;
+
+    private int[] successorOffsets;
+
+    private int[] successors;
+
+    private float[] successorDataSizes;
+
+    public WorkflowGraph(List<Task> taskList){
+        int n = taskList.size();
+        this.tasks = new Task[n];
+        this.lengths = new float[n];
+        this.predecessorOffsets = new int[n + 1];
+        this.successorOffsets = new int[n + 1];
+        for(Task ti : taskList){
+            int i = ti.getIndex();
+            tasks[i] = ti;
+            lengths[i] = ti.getLength();
+            predecessorOffsets[i + 1] = ti.getPredecessors().size();
+            successorOffsets[i + 1] = ti.getSuccessors().size();
+        }
+        for(int i = 0; i < n; i++){
+            predecessorOffsets[i + 1] += predecessorOffsets[i];
+            successorOffsets[i + 1] += successorOffsets[i];
+        }
+
+        int m = predecessorOffsets[n];
+        this.predecessors = new int[m];
+        this.predecessorDataSizes = new float[m];
+        this.predecessorsByDataSize = new int[m];
+        this.successors = new int[successorOffsets[n]];
+        this.successorDataSizes = new float[successorOffsets[n]];
+        Integer[] order = new Integer[0];
+        for(int i = 0; i < n; i++){
+            Task ti = tasks[i];
+            int e = predecessorOffsets[i];
+            for(Task tp : ti.getPredecessors()){
+                predecessors[e] = tp.getIndex();
+                predecessorDataSizes[e] = ti.getTransferredDataSize().getOrDefault(tp.getId(), 0.0f);
+                e += 1;
+            }
+            e = successorOffsets[i];
+            for(Task ts : ti.getSuccessors()){
+                successors[e] = ts.getIndex();
+                successorDataSizes[e] = ts.getTransferredDataSize().getOrDefault(ti.getId(), 0.0f);
+                e += 1;
+            }
+
+            // stable sort of the predecessor edges by data size, descending
+            int from = predecessorOffsets[i], to = predecessorOffsets[i + 1];
+            if(order.length < to - from){
+                order = new Integer[Math.max(to - from, 2 * order.length)];
+            }
+            for(int k = from; k < to; k++){
+                order[k - from] = k;
+            }
+            Arrays.sort(order, 0, to - from, (e1, e2) -> {
+                float s1 = predecessorDataSizes[e1], s2 = predecessorDataSizes[e2];
+                return (s2==s1)? 0: (s2<s1)? -1: 1;
+            });
+            for(int k = from; k < to; k++){
+                predecessorsByDataSize[k] = order[k - from];
+            }
+        }
+    }
+
+    // time to transfer the data size of an edge between the VMs of its tasks,
+    // in seconds, as in Task.transferTime
+    public static float transferTime(float dataSize, Vm v, Vm v_tp){
+        if(v!=null && v_tp!=null && v.getId()==v_tp.getId()){
+            return 0.0f;
+        }
+        return (dataSize / DataCenter.BANDWIDTH);
+    }
+
+    public int size() {
+        return tasks.length;
+    }
+
+    public int edgeCount() {
+        return predecessors.length;
+    }
+
+    public Task getTask(int i) {
+        return tasks[i];
+    }
+
+    public float getLength(int i) {
+        return lengths[i];
+    }
+
+    public int getPredecessorCount(int i) {
+        return predecessorOffsets[i + 1] - predecessorOffsets[i];
+    }
+
+    public int getSuccessorCount(int i) {
+        return successorOffsets[i + 1] - successorOffsets[i];
+    }
+
+    public int[] getPredecessorOffsets() {
+        return predecessorOffsets;
+    }
+
+    public int[] getPredecessors() {
+        return predecessors;
+    }
+
+    public float[] getPredecessorDataSizes() {
+        return predecessorDataSizes;
+    }
+
+    public int[] getPredecessorsByDataSize() {
+        return predecessorsByDataSize;
+    }
+
+    public int[] getSuccessorOffsets() {
+        return successorOffsets;
+    }
+
+    public int[] getSuccessors() {
+        return successors;
+    }
+
+    public float[] getSuccessorDataSizes() {
+        return successorDataSizes;
+    }
+
+}
@@ -0,0 +1,163 @@
+package org.example.simulator.workflow;
+
+import org.example.simulator.vm.DataCenter;
+import org.example.simulator.vm.VmType;
+
+// the structure of a workflow that no scheduling decision changes: a
+// topological order of its tasks, the depth level of each task and the
+// critical path when every task runs on its own VM of the fastest type;
+// computed once per workflow so schedulers, the timing engine and reports
+// never derive them again
+public class WorkflowTopology {
+
+    // task indices sorted in topological order
+    private int[] topologicalOrder;
+
+    // indexed by Task.getIndex(): 0 for entry tasks, otherwise one more
+    // than the deepest predecessor
+    private int[] levels;
+
+    private int levelCount;
+
+    // task indices from an entry task to an exit task
+    private int[] criticalPath;
+
+    private float criticalPathLength;
+
+    private VmType criticalPathVmType;
+
+    public WorkflowTopology(WorkflowGraph graph, VmType fastestVmType){
+        this.topologicalOrder = computeTopologicalOrder(graph);
+        this.levels = computeLevels(graph, topologicalOrder);
+        for(int level : levels){
+            levelCount = Math.max(levelCount, level + 1);
+        }
+        this.criticalPathVmType = fastestVmType;
+        computeCriticalPath(graph, fastestVmType);
+    }
+
+    // Kahn's algorithm over the CSR graph
+    static int[] computeTopologicalOrder(WorkflowGraph graph){
+        int n = graph.size();
+        int[] successorOffsets = graph.getSuccessorOffsets();
+        int[] successors = graph.getSuccessors();
+        int[] inDegree = new int[n];
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for(int i = 0; i < n; i++){
+            inDegree[i] = graph.getPredecessorCount(i);
+            if(inDegree[i] == 0){
+                order[tail++] = i;
+            }
+        }
+        while(head < tail){
+            int i = order[head++];
+            for(int e = successorOffsets[i]; e < successorOffsets[i + 1]; e++){
+                if(--inDegree[successors[e]] == 0){
+                    order[tail++] = successors[e];
+                }
+            }
+        }
+        if(tail != n){
+            throw new IllegalStateException("Workflow is not acyclic");
+        }
+        return order;
+    }
+
+    private static int[] computeLevels(WorkflowGraph graph, int[] topologicalOrder){
+        int[] predecessorOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        int[] levels = new int[graph.size()];
+        for(int i : topologicalOrder){
+            int level = 0;
+            for(int e = predecessorOffsets[i]; e < predecessorOffsets[i + 1]; e++){
+                level = Math.max(level, levels[predecessors[e]] + 1);
+            }
+            levels[i] = level;
+        }
+        return levels;
+    }
+
+    // the longest path by equations-(2) and (3) with every task on a fresh VM
+    // of the type, so every edge pays its transfer time; its length is the
+    // estimated makespan of the naive schedule on that type
+    private void computeCriticalPath(WorkflowGraph graph, VmType vmType){
+        int n = graph.size();
+        int[] predecessorOffsets = graph.getPredecessorOffsets();
+        int[] predecessors = graph.getPredecessors();
+        float[] dataSizes = graph.getPredecessorDataSizes();
+        float processingSpeed = vmType.getMaximumProcessingSpeed();
+
+        float[] finishTimes = new float[n];
+        int[] criticalPredecessors = new int[n];
+        int last = -1;
+        for(int i : topologicalOrder){
+            float est = 0.0f;
+            int critical = -1;
+            for(int e = predecessorOffsets[i]; e < predecessorOffsets[i + 1]; e++){
+                int p = predecessors[e];
+                float start = finishTimes[p] + dataSizes[e] / DataCenter.BANDWIDTH;
+                if(critical < 0 || start > est){
+                    est = Math.max(est, start);
+                    critical = p;
+                }
+            }
+            finishTimes[i] = est + graph.getLength(i) / processingSpeed;
+            criticalPredecessors[i] = critical;
+            if(graph.getSuccessorCount(i) == 0 && (last < 0 || finishTimes[i] > finishTimes[last])){
+                last = i;
+            }
+        }
+
+        int length = 0;
+        for(int i = last; i >= 0; i = criticalPredecessors[i]){
+            length += 1;
+        }
+        this.criticalPath = new int[length];
+        for(int i = last, k = length - 1; i >= 0; i = criticalPredecessors[i], k--){
+            criticalPath[k] = i;
+        }
+        this.criticalPathLength = (last < 0)? 0.0f: finishTimes[last];
+    }
+
+    public int[] getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    public int getLevel(int i) {
+        return levels[i];
+    }
+
+    public int getLevel(Task task) {
+        return levels[task.getIndex()];
+    }
+
+    public int[] getLevels() {
+        return levels;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    // task indices of the critical path, from entry to exit
+    public int[] getCriticalPath() {
+        return criticalPath;
+    }
+
+    // in seconds
+    public float getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    public VmType getCriticalPathVmType() {
+        return criticalPathVmType;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d levels, critical path of %d tasks, %.2f s on VM type %d",
+                levelCount, criticalPath.length, criticalPathLength, criticalPathVmType.getId());
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmCatalog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+// a dense schedule against one on the map backend, given the same
+// assignments, on a chain p -> q -> r with a branch p -> s and an
+// independent task u; lengths in MI, data sizes in Gb
+public class DenseScheduleTest {
+
+    private Task p = new Task("p", "P", 2000.0f);
+
+    private Task q = new Task("q", "Q", 1000.0f);
+
+    private Task r = new Task("r", "R", 1000.0f);
+
+    private Task s = new Task("s", "S", 4000.0f);
+
+    private Task u = new Task("u", "U", 1000.0f);
+
+    private Workflow workflow;
+
+    // v0 at 1000 MIPS and v1 at 2000 MIPS
+    private Vm v0;
+
+    private Vm v1;
+
+    private Schedule dense;
+
+    private Schedule map;
+
+    @Before
+    public void setUp(){
+        q.addPredecessor(p);
+        p.addSuccessor(q);
+        q.getTransferredDataSize().put(p.getId(), 1.0f);
+        r.addPredecessor(q);
+        q.addSuccessor(r);
+        r.getTransferredDataSize().put(q.getId(), 1.0f);
+        s.addPredecessor(p);
+        p.addSuccessor(s);
+        s.getTransferredDataSize().put(p.getId(), 0.5f);
+        workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create("Chain", Arrays.asList(p, q, r, s, u));
+
+        v0 = new Vm(0, VmCatalog.getDefault().getCheapestVmType());
+        v0.setProcessingSpeed(1000.0f);
+        v1 = new Vm(1, VmCatalog.getDefault().getCheapestVmType());
+        v1.setProcessingSpeed(2000.0f);
+
+        // p on v0 over [0, 2], then s and q on v1 over [2.5, 4.5] and
+        // [4.5, 5], u into the gap [0, 2.5] of v1, r on v0 over [6, 7]
+        dense = new DenseSchedule("Dense", workflow.getName(), workflow.getGraph());
+        map = new Schedule("Map", workflow.getName(), workflow.getTaskList().size());
+        for(Schedule schedule : new Schedule[]{ dense, map }){
+            schedule.assign(p, v0, Placement.APPEND);
+            schedule.assign(s, v1, Placement.APPEND);
+            schedule.assign(q, v1, Placement.APPEND);
+            schedule.assign(u, v1, Placement.INSERTION);
+            schedule.assign(r, v0, Placement.APPEND);
+        }
+    }
+
+    private void assertStartTimes(float... startTimes){
+        for(Task ti : workflow.getTaskList()){
+            assertSame(map.getAssignedVm(ti), dense.getAssignedVm(ti));
+            assertEquals(ti.getId(), startTimes[ti.getIndex()], dense.actualStartTime(ti), 0.0f);
+            assertEquals(ti.getId(), startTimes[ti.getIndex()], map.actualStartTime(ti), 0.0f);
+            assertEquals(ti.getId(), map.actualFinishTime(ti), dense.actualFinishTime(ti), 0.0f);
+        }
+    }
+
+    @Test
+    public void sameAssignment(){
+        assertEquals(Arrays.asList(p, r), dense.getAssignedTasks(v0));
+        assertEquals(Arrays.asList(u, s, q), dense.getAssignedTasks(v1));
+        assertEquals(map.getAssignment(), dense.getAssignment());
+        assertSame(u, dense.getTaskScheduledBefore(s, v1));
+        assertSame(s, dense.getTaskScheduledBefore(q, v1));
+    }
+
+    @Test
+    public void sameTimings(){
+        assertStartTimes(0.0f, 4.5f, 6.0f, 2.5f, 0.0f);
+    }
+
+    // halving the speed of v0 drops the cached timings of both the same way
+    @Test
+    public void sameTimingsAfterProcessingSpeedChange(){
+        assertStartTimes(0.0f, 4.5f, 6.0f, 2.5f, 0.0f);
+        v0.setProcessingSpeed(500.0f);
+        dense.invalidate(v0);
+        map.invalidate(v0);
+        assertStartTimes(0.0f, 6.5f, 8.0f, 4.5f, 0.0f);
+    }
+
+}
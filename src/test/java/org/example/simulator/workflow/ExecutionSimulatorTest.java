@@ -0,0 +1,134 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmCatalog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+// a schedule run event by event, and replayed, on two mappers m1, m2 feeding
+// a join j: m1 and j on v0, m2 on v1, both VMs at 1000 MIPS, so m1 runs over
+// [0, 3], m2 over [0, 1] and j, waiting for m1 and the 1.5 Gb of m2, over [3, 5]
+public class ExecutionSimulatorTest {
+
+    private Task m1 = new Task("m1", "Map", 3000.0f);
+
+    private Task m2 = new Task("m2", "Map", 1000.0f);
+
+    private Task j = new Task("j", "Join", 2000.0f);
+
+    private Workflow workflow;
+
+    private Vm v0;
+
+    private Vm v1;
+
+    private Schedule schedule;
+
+    @Before
+    public void setUp(){
+        for(Task m : new Task[]{ m1, m2 }){
+            m.addSuccessor(j);
+            j.addPredecessor(m);
+        }
+        j.getTransferredDataSize().put(m1.getId(), 0.5f);
+        j.getTransferredDataSize().put(m2.getId(), 1.5f);
+        workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create("MapJoin", Arrays.asList(m1, m2, j));
+
+        v0 = new Vm(0, VmCatalog.getDefault().getCheapestVmType());
+        v0.setProcessingSpeed(1000.0f);
+        v1 = new Vm(1, VmCatalog.getDefault().getCheapestVmType());
+        v1.setProcessingSpeed(1000.0f);
+        schedule = new DenseSchedule("Test", workflow.getName(), workflow.getGraph());
+        schedule.assign(m1, v0);
+        schedule.assign(m2, v1);
+        schedule.assign(j, v0);
+    }
+
+    private static float[] lengthsOf(WorkflowGraph graph, float factor){
+        float[] lengths = new float[graph.size()];
+        for(int i = 0; i < lengths.length; i++){
+            lengths[i] = factor * graph.getLength(i);
+        }
+        return lengths;
+    }
+
+    private void assertTimes(ExecutionTrace trace, float... startAndFinishTimes){
+        for(Task ti : workflow.getTaskList()){
+            assertEquals(ti.getId(), startAndFinishTimes[2 * ti.getIndex()], trace.getStartTime(ti), 0.0f);
+            assertEquals(ti.getId(), startAndFinishTimes[2 * ti.getIndex() + 1], trace.getFinishTime(ti), 0.0f);
+        }
+    }
+
+    @Test
+    public void finishTimesEqualActualTimes(){
+        ExecutionTrace trace = new ExecutionSimulator(workflow, schedule).simulate();
+        assertTimes(trace, 0.0f, 3.0f, 0.0f, 1.0f, 3.0f, 5.0f);
+        for(Task ti : workflow.getTaskList()){
+            assertSame(schedule.getAssignedVm(ti), trace.getVm(ti));
+            assertEquals(ti.getId(), schedule.actualStartTime(ti), trace.getStartTime(ti), 0.0f);
+            assertEquals(ti.getId(), schedule.actualFinishTime(ti), trace.getFinishTime(ti), 0.0f);
+        }
+        assertEquals(5.0f, trace.getMakespan(), 0.0f);
+        assertEquals(workflow.actualMakespan(schedule), trace.getMakespan(), 0.0f);
+        assertEquals(workflow.cost(schedule), trace.getCost(), 0.0f);
+        assertEquals(workflow.energyConsumption(schedule), trace.getEnergyConsumption(), 0.0f);
+        assertEquals(1.0f, trace.getUtilization(), 0.0f);
+        assertTrue(trace.getEventCount() > 0);
+    }
+
+    // a VM can run its first task only once it has booted
+    @Test
+    public void bootTimeDelaysFirstTasks(){
+        ExecutionSimulator simulator = new ExecutionSimulator(workflow, schedule);
+        simulator.setVmBootTime(10.0f);
+        ExecutionTrace trace = simulator.simulate();
+        assertTimes(trace, 10.0f, 13.0f, 10.0f, 11.0f, 13.0f, 15.0f);
+        assertEquals(0.0f, trace.getLaunchTime(0), 0.0f);
+        assertEquals(15.0f, trace.getMakespan(), 0.0f);
+        assertEquals(1.0f / 3.0f, trace.getUtilization(0), 1.0e-6f);
+    }
+
+    @Test
+    public void replayEqualsSimulate(){
+        ExecutionSimulator simulator = new ExecutionSimulator(workflow, schedule);
+        WorkflowGraph graph = workflow.getGraph();
+        ExecutionTrace simulated = simulator.simulate();
+        ExecutionTrace replayed = simulator.replay(lengthsOf(graph, 1.0f), graph.getPredecessorDataSizes());
+        assertTimes(replayed, 0.0f, 3.0f, 0.0f, 1.0f, 3.0f, 5.0f);
+        assertEquals(simulated.getMakespan(), replayed.getMakespan(), 0.0f);
+        assertEquals(simulated.getCost(), replayed.getCost(), 0.0f);
+        assertEquals(simulated.getEnergyConsumption(), replayed.getEnergyConsumption(), 0.0f);
+    }
+
+    // a trace replayed into holds the results of the last replay alone
+    @Test
+    public void replayIntoEarlierTrace(){
+        ExecutionSimulator simulator = new ExecutionSimulator(workflow, schedule);
+        WorkflowGraph graph = workflow.getGraph();
+        ExecutionTrace trace = simulator.replay(lengthsOf(graph, 1.0f), graph.getPredecessorDataSizes());
+        assertSame(trace, simulator.replay(lengthsOf(graph, 2.0f), graph.getPredecessorDataSizes(), trace));
+        assertTimes(trace, 0.0f, 6.0f, 0.0f, 2.0f, 6.0f, 10.0f);
+        assertEquals(10.0f, trace.getMakespan(), 0.0f);
+        assertEquals(1.0f, trace.getUtilization(), 0.0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replayIntoTraceOfOtherSchedule(){
+        Schedule other = new DenseSchedule("Other", workflow.getName(), workflow.getGraph());
+        other.assign(m1, v0);
+        other.assign(m2, v0);
+        other.assign(j, v0);
+        ExecutionTrace trace = new ExecutionSimulator(workflow, other).simulate();
+        WorkflowGraph graph = workflow.getGraph();
+        new ExecutionSimulator(workflow, schedule).replay(lengthsOf(graph, 1.0f), graph.getPredecessorDataSizes(), trace);
+    }
+
+}
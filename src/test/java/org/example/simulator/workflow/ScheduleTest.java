@@ -0,0 +1,178 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmCatalog;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ScheduleTest {
+
+    // a diamond a -> {b, c} -> d, and e after a; lengths in MI, data sizes in Gb
+    private Task a = new Task("a", "A", 4.0f);
+
+    private Task b = new Task("b", "B", 2.0f);
+
+    private Task c = new Task("c", "C", 6.0f);
+
+    private Task d = new Task("d", "D", 2.0f);
+
+    private Task e = new Task("e", "E", 3.0f);
+
+    private Workflow diamond(){
+        link(a, b, 1.0f);
+        link(a, c, 2.0f);
+        link(b, d, 1.0f);
+        link(c, d, 3.0f);
+        link(a, e, 0.5f);
+        Workflow workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create("Diamond", Arrays.asList(a, b, c, d, e));
+        return workflow;
+    }
+
+    private static void link(Task tp, Task ts, float dataSize){
+        tp.addSuccessor(ts);
+        ts.addPredecessor(tp);
+        ts.getTransferredDataSize().put(tp.getId(), dataSize);
+    }
+
+    // a VM running at the given speed in MIPS
+    private static Vm vm(int id, float processingSpeed){
+        Vm vm = new Vm(id, VmCatalog.getDefault().getCheapestVmType());
+        vm.setProcessingSpeed(processingSpeed);
+        return vm;
+    }
+
+    // tasks built by hand get their list positions as indices,
+    // so each one has its own entry in the reverse index
+    @Test
+    public void tasksOfHandBuiltWorkflowAreIndexed(){
+        Workflow workflow = diamond();
+        assertEquals(0, a.getIndex());
+        assertEquals(3, d.getIndex());
+
+        Vm v0 = vm(0, 1.0f), v1 = vm(1, 2.0f);
+        Schedule schedule = new Schedule("Test", workflow.getName(), 5);
+        schedule.assign(a, v0);
+        schedule.assign(b, v1);
+        assertSame(v0, schedule.getAssignedVm(a));
+        assertSame(v1, schedule.getAssignedVm(b));
+        assertNull(schedule.getAssignedVm(c));
+
+        schedule.dismiss(b, v1);
+        assertNull(schedule.getAssignedVm(b));
+        assertSame(v0, schedule.getAssignedVm(a));
+    }
+
+    // a on v0 over [0, 4], b and c on v1 over [5, 6] and [6, 9],
+    // d on v0 from 12, leaving v0 idle over [4, 12]
+    private Schedule schedule(Workflow workflow, Vm v0, Vm v1){
+        Schedule schedule = new DenseSchedule("Test", workflow.getName(), workflow.getGraph());
+        schedule.assign(a, v0);
+        schedule.assign(b, v1);
+        schedule.assign(c, v1);
+        schedule.assign(d, v0);
+        return schedule;
+    }
+
+    private static void assertSameSchedule(Workflow workflow, Schedule expected, Schedule actual){
+        for(Task ti : workflow.getTaskList()){
+            assertSame(ti.getId(), expected.getAssignedVm(ti), actual.getAssignedVm(ti));
+            if(expected.getAssignedVm(ti) != null){
+                assertEquals(ti.getId(), expected.actualStartTime(ti), actual.actualStartTime(ti), 0.0f);
+            }
+        }
+        assertEquals(expected.getAssignment(), actual.getAssignment());
+    }
+
+    @Test
+    public void timings(){
+        Workflow workflow = diamond();
+        Vm v0 = vm(0, 1.0f), v1 = vm(1, 2.0f);
+        Schedule schedule = schedule(workflow, v0, v1);
+        assertEquals(0.0f, schedule.actualStartTime(a), 0.0f);
+        assertEquals(5.0f, schedule.actualStartTime(b), 0.0f);
+        assertEquals(6.0f, schedule.actualStartTime(c), 0.0f);
+        assertEquals(12.0f, schedule.actualStartTime(d), 0.0f);
+        assertEquals(14.0f, schedule.actualFinishTime(d), 0.0f);
+    }
+
+    @Test
+    public void commitKeepsTrialPlacement(){
+        Workflow workflow = diamond();
+        Vm v0 = vm(0, 1.0f), v1 = vm(1, 2.0f);
+        Schedule schedule = schedule(workflow, v0, v1);
+        schedule.tryAssign(e, v1, Placement.APPEND);
+        assertEquals(10.5f, schedule.actualFinishTime(e), 0.0f);
+        schedule.commit();
+        schedule.rollback();
+
+        Schedule expected = schedule(workflow, v0, v1);
+        expected.assign(e, v1);
+        assertSameSchedule(workflow, expected, schedule);
+    }
+
+    @Test
+    public void rollbackRestoresAppend(){
+        Workflow workflow = diamond();
+        Vm v0 = vm(0, 1.0f), v1 = vm(1, 2.0f);
+        Schedule schedule = schedule(workflow, v0, v1);
+        assertSame(v1, schedule.findIdleVm(v1.getType(), 10.0f));
+
+        schedule.tryAssign(e, v1, Placement.APPEND);
+        assertEquals(10.5f, schedule.actualFinishTime(e), 0.0f);
+        assertNull(schedule.findIdleVm(v1.getType(), 10.0f));
+        schedule.rollback();
+
+        assertNull(schedule.getAssignedVm(e));
+        assertSame(v1, schedule.findIdleVm(v1.getType(), 10.0f));
+        assertSameSchedule(workflow, schedule(workflow, v0, v1), schedule);
+    }
+
+    // the gap a trial insertion split is whole again after the rollback
+    @Test
+    public void rollbackRestoresInsertion(){
+        Workflow workflow = diamond();
+        Vm v0 = vm(0, 1.0f), v1 = vm(1, 2.0f);
+        Schedule schedule = schedule(workflow, v0, v1);
+        assertEquals(7.0f, schedule.evaluateGapFinishTime(e, v0), 0.0f);
+
+        schedule.tryAssign(e, v0, Placement.INSERTION);
+        assertEquals(4.0f, schedule.actualStartTime(e), 0.0f);
+        assertEquals(12.0f, schedule.actualStartTime(d), 0.0f);
+        schedule.rollback();
+
+        assertEquals(7.0f, schedule.evaluateGapFinishTime(e, v0), 0.0f);
+        assertSameSchedule(workflow, schedule(workflow, v0, v1), schedule);
+    }
+
+    // a VM the trial placements added leaves the schedule with them
+    @Test
+    public void rollbackUndoesAllTrialsOnNewVm(){
+        Workflow workflow = diamond();
+        Vm v0 = vm(0, 1.0f), v1 = vm(1, 2.0f), v2 = vm(2, 1.0f);
+        Schedule schedule = new DenseSchedule("Test", workflow.getName(), workflow.getGraph());
+        schedule.assign(a, v0);
+        schedule.assign(b, v1);
+        schedule.tryAssign(c, v2, Placement.APPEND);
+        schedule.tryAssign(e, v2, Placement.APPEND);
+        assertEquals(6.0f, schedule.actualStartTime(c), 0.0f);
+        assertEquals(12.0f, schedule.actualStartTime(e), 0.0f);
+        schedule.rollback();
+
+        assertFalse(schedule.hasVm(v2));
+        assertNull(schedule.getAssignedVm(c));
+        assertNull(schedule.getAssignedVm(e));
+        Schedule expected = new DenseSchedule("Test", workflow.getName(), workflow.getGraph());
+        expected.assign(a, v0);
+        expected.assign(b, v1);
+        assertSameSchedule(workflow, expected, schedule);
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmCatalog;
+import org.example.simulator.vm.VmType;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+// schedulers against the schedules the workflow computes itself, and
+// against schedules known by hand; lengths in MI, data sizes in Gb
+public class SchedulerTest {
+
+    private static final float[] ALPHAS = { 1.1f, 1.3f, 2.0f };
+
+    private static final float[] BETAS = { 0.2f, 0.6f, 1.0f };
+
+    private static void link(Task tp, Task ts, float dataSize){
+        tp.addSuccessor(ts);
+        ts.addPredecessor(tp);
+        ts.getTransferredDataSize().put(tp.getId(), dataSize);
+    }
+
+    // a split fanning out to three workers joined by a merge,
+    // next to a chain c1 -> c2 hanging off the split
+    private static Workflow forkJoin(){
+        Task split = new Task("split", "Split", 20000.0f);
+        Task w1 = new Task("w1", "Work", 40000.0f);
+        Task w2 = new Task("w2", "Work", 30000.0f);
+        Task w3 = new Task("w3", "Work", 50000.0f);
+        Task merge = new Task("merge", "Merge", 10000.0f);
+        Task c1 = new Task("c1", "Chain", 25000.0f);
+        Task c2 = new Task("c2", "Chain", 15000.0f);
+        link(split, w1, 2.0f);
+        link(split, w2, 1.0f);
+        link(split, w3, 4.0f);
+        link(w1, merge, 1.0f);
+        link(w2, merge, 2.0f);
+        link(w3, merge, 0.5f);
+        link(split, c1, 0.5f);
+        link(c1, c2, 3.0f);
+        Workflow workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create("ForkJoin", Arrays.asList(split, w1, w2, w3, merge, c1, c2));
+        return workflow;
+    }
+
+    // a chain a -> b -> c -> d of 100000 MI in all
+    private static Workflow chain(){
+        Task a = new Task("a", "A", 30000.0f);
+        Task b = new Task("b", "B", 20000.0f);
+        Task c = new Task("c", "C", 40000.0f);
+        Task d = new Task("d", "D", 10000.0f);
+        link(a, b, 2.0f);
+        link(b, c, 1.0f);
+        link(c, d, 3.0f);
+        Workflow workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create("Chain", Arrays.asList(a, b, c, d));
+        return workflow;
+    }
+
+    private static void assertSameSchedule(Workflow workflow, Schedule expected, Schedule actual){
+        for(Task ti : workflow.getTaskList()){
+            Vm expectedVm = expected.getAssignedVm(ti);
+            Vm actualVm = actual.getAssignedVm(ti);
+            assertEquals(ti.getId(), expectedVm.getId(), actualVm.getId());
+            assertEquals(ti.getId(), expectedVm.getType().getId(), actualVm.getType().getId());
+            assertEquals(ti.getId(), expectedVm.getProcessingSpeed(), actualVm.getProcessingSpeed(), 0.0f);
+            assertEquals(ti.getId(), expected.actualStartTime(ti), actual.actualStartTime(ti), 0.0f);
+        }
+        assertEquals(workflow.actualMakespan(expected), workflow.actualMakespan(actual), 0.0f);
+        assertEquals(workflow.cost(expected), workflow.cost(actual), 0.0f);
+        assertEquals(workflow.energyConsumption(expected), workflow.energyConsumption(actual), 0.0f);
+    }
+
+    // every task on one VM of the given type, back to back from the given start times
+    private static void assertOnOneVm(Workflow workflow, Schedule schedule, VmType vmType, float... startTimes){
+        Vm vm = schedule.getAssignedVm(workflow.getTaskList().get(0));
+        assertSame(vmType, vm.getType());
+        for(Task ti : workflow.getTaskList()){
+            assertSame(ti.getId(), vm, schedule.getAssignedVm(ti));
+            assertEquals(ti.getId(), startTimes[ti.getIndex()], schedule.actualStartTime(ti), 1.0e-4f);
+        }
+    }
+
+    @Test
+    public void esdwbSchedulerMatchesWorkflow(){
+        Workflow workflow = forkJoin();
+        Scheduler scheduler = new ESDWBScheduler();
+        for(Placement placement : Placement.values()){
+            for(float alpha : ALPHAS){
+                for(float beta : BETAS){
+                    assertSameSchedule(workflow,
+                            workflow.computeESDWBSchedule(alpha, beta, placement),
+                            scheduler.schedule(workflow, alpha, beta, placement));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void modifiedEsdwbSchedulerMatchesWorkflow(){
+        Workflow workflow = forkJoin();
+        Scheduler scheduler = new ModifiedESDWBScheduler();
+        for(Placement placement : Placement.values()){
+            for(float alpha : ALPHAS){
+                for(float beta : BETAS){
+                    assertSameSchedule(workflow,
+                            workflow.computeModifiedESDWBSchedule(alpha, beta, placement),
+                            scheduler.schedule(workflow, alpha, beta, placement));
+                }
+            }
+        }
+    }
+
+    // under a loose deadline each task of the chain reuses the VM of its
+    // predecessor, so the chain runs on one cheapest VM at 1800 MIPS with
+    // no transfers: over [0, 16.67], [16.67, 27.78], [27.78, 50], [50, 55.56]
+    @Test
+    public void esdwbKeepsChainOnCheapestVm(){
+        Workflow workflow = chain();
+        Schedule schedule = Workflow.ESDWB.schedule(workflow, 2.0f, 0.2f, Placement.APPEND);
+        assertOnOneVm(workflow, schedule, VmCatalog.getDefault().getCheapestVmType(),
+                0.0f, 300.0f / 18.0f, 500.0f / 18.0f, 900.0f / 18.0f);
+        assertEquals(1000.0f / 18.0f, workflow.actualMakespan(schedule), 1.0e-4f);
+    }
+
+    // with the whole budget to spend the chain runs on one fastest VM at
+    // 3000 MIPS: over [0, 10], [10, 16.67], [16.67, 30], [30, 33.33]
+    @Test
+    public void modifiedEsdwbKeepsChainOnFastestVm(){
+        Workflow workflow = chain();
+        Schedule schedule = Workflow.MODIFIED_ESDWB.schedule(workflow, 1.1f, 1.0f, Placement.APPEND);
+        assertOnOneVm(workflow, schedule, VmCatalog.getDefault().getFastestVmType(),
+                0.0f, 10.0f, 50.0f / 3.0f, 30.0f);
+        assertEquals(100.0f / 3.0f, workflow.actualMakespan(schedule), 1.0e-4f);
+    }
+
+    // runs share nothing but the frozen workflow, so an earlier run does
+    // not change the schedule of a later one
+    @Test
+    public void runsOnFrozenWorkflowAreIndependent(){
+        Workflow workflow = forkJoin();
+        Schedule unfrozen = workflow.computeESDWBSchedule(1.3f, 0.6f);
+        workflow.freeze();
+        workflow.computeModifiedESDWBSchedule(1.1f, 0.2f);
+        assertSameSchedule(workflow, unfrozen, Workflow.ESDWB.schedule(workflow, 1.3f, 0.6f, Placement.APPEND));
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.example.simulator.vm.Vm;
+import org.example.simulator.vm.VmType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+// the passes of the timing engine on a fork-join s -> {x, y} -> t, listed
+// out of topological order; lengths in MI, data sizes in Gb, and every VM
+// at 1000 MIPS, so a task of l MI runs l / 1000 seconds
+public class TimingEngineTest {
+
+    private static final VmType VM_TYPE = new VmType(0, 3.6f, Arrays.asList(1.0f), Arrays.asList(1.0f));
+
+    // at 2000 MIPS, for the average execution times of the upward ranks
+    private static final VmType FAST_VM_TYPE = new VmType(1, 7.2f, Arrays.asList(1.0f), Arrays.asList(2.0f));
+
+    private Task s = new Task("s", "S", 2000.0f);
+
+    private Task x = new Task("x", "X", 1000.0f);
+
+    private Task y = new Task("y", "Y", 3000.0f);
+
+    private Task t = new Task("t", "T", 1000.0f);
+
+    private Workflow workflow;
+
+    private static void link(Task tp, Task ts, float dataSize){
+        tp.addSuccessor(ts);
+        ts.addPredecessor(tp);
+        ts.getTransferredDataSize().put(tp.getId(), dataSize);
+    }
+
+    @Before
+    public void setUp(){
+        link(s, x, 1.0f);
+        link(s, y, 2.0f);
+        link(x, t, 4.0f);
+        link(y, t, 1.0f);
+        workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create("ForkJoin", Arrays.asList(s, y, x, t));
+    }
+
+    // every task on one VM, where transfers take no time
+    private Schedule oneVmSchedule(){
+        Vm vm = new Vm(0, VM_TYPE);
+        Schedule schedule = new Schedule("OneVm", workflow.getName(), workflow.getTaskList().size());
+        for(Task ti : workflow.getTaskList()){
+            schedule.assign(ti, vm);
+        }
+        return schedule;
+    }
+
+    // EST and EFT of s, x, y and t
+    private static void assertEarliestTimes(TimingEngine engine, Task[] tasks, float... startAndFinishTimes){
+        for(int k = 0; k < tasks.length; k++){
+            assertEquals(tasks[k].getId(), startAndFinishTimes[2 * k], engine.earliestStartTime(tasks[k]), 0.0f);
+            assertEquals(tasks[k].getId(), startAndFinishTimes[2 * k + 1], engine.earliestFinishTime(tasks[k]), 0.0f);
+        }
+    }
+
+    // each task on its own VM: x and y wait for the 1 and 2 Gb from s,
+    // t for the 4 Gb from x at 8 and the 1 Gb from y at 8
+    @Test
+    public void earliestTimesOnNaiveSchedule(){
+        TimingEngine engine = new TimingEngine(workflow);
+        engine.computeEarliestTimes(workflow.computeNaiveSchedule(VM_TYPE));
+        assertEarliestTimes(engine, new Task[]{ s, x, y, t },
+                0.0f, 2.0f, 3.0f, 4.0f, 4.0f, 7.0f, 8.0f, 9.0f);
+        assertEquals(9.0f, engine.estimatedMakespan(), 0.0f);
+    }
+
+    @Test
+    public void earliestTimesOnOneVm(){
+        TimingEngine engine = new TimingEngine(workflow);
+        engine.computeEarliestTimes(oneVmSchedule());
+        assertEarliestTimes(engine, new Task[]{ s, x, y, t },
+                0.0f, 2.0f, 2.0f, 3.0f, 2.0f, 5.0f, 5.0f, 6.0f);
+        assertEquals(6.0f, engine.estimatedMakespan(), 0.0f);
+    }
+
+    // LST and LFT of s, x, y and t
+    private static void assertLatestTimes(TimingEngine engine, Task[] tasks, float... startAndFinishTimes){
+        for(int k = 0; k < tasks.length; k++){
+            assertEquals(tasks[k].getId(), startAndFinishTimes[2 * k], engine.latestStartTime(tasks[k]), 0.0f);
+            assertEquals(tasks[k].getId(), startAndFinishTimes[2 * k + 1], engine.latestFinishTime(tasks[k]), 0.0f);
+        }
+    }
+
+    // t finishes by the makespan of 9, x and y early enough for their data to
+    // reach t by 8, and s by 2 so that the 2 Gb reach y by 4
+    @Test
+    public void latestTimesOnNaiveSchedule(){
+        Schedule schedule = workflow.computeNaiveSchedule(VM_TYPE);
+        TimingEngine engine = new TimingEngine(workflow);
+        engine.computeEarliestTimes(schedule);
+        engine.computeLatestTimes(schedule, engine.estimatedMakespan());
+        assertLatestTimes(engine, new Task[]{ s, x, y, t },
+                0.0f, 2.0f, 3.0f, 4.0f, 4.0f, 7.0f, 8.0f, 9.0f);
+        assertEquals(13.5f, engine.deadline(t, 1.5f), 0.0f);
+        assertEquals(6.0f, engine.deadline(x, 1.5f), 0.0f);
+    }
+
+    // x may start 2 seconds late without delaying t, y not at all
+    @Test
+    public void latestTimesOnOneVm(){
+        Schedule schedule = oneVmSchedule();
+        TimingEngine engine = new TimingEngine(workflow);
+        engine.computeEarliestTimes(schedule);
+        engine.computeLatestTimes(schedule, engine.estimatedMakespan());
+        assertLatestTimes(engine, new Task[]{ s, x, y, t },
+                0.0f, 2.0f, 4.0f, 5.0f, 2.0f, 5.0f, 5.0f, 6.0f);
+    }
+
+    // average execution times over both types of 1.5, 0.75, 2.25 and 0.75;
+    // the 4 Gb on the way to t rank x above y
+    @Test
+    public void upwardRanksOnNaiveSchedule(){
+        TimingEngine engine = new TimingEngine(workflow);
+        engine.computeUpwardRanks(Arrays.asList(VM_TYPE, FAST_VM_TYPE), workflow.computeNaiveSchedule(VM_TYPE));
+        assertEquals(8.0f, engine.upwardRank(s), 1.0e-4f);
+        assertEquals(5.5f, engine.upwardRank(x), 1.0e-4f);
+        assertEquals(4.0f, engine.upwardRank(y), 1.0e-4f);
+        assertEquals(0.75f, engine.upwardRank(t), 1.0e-4f);
+        assertEquals(Arrays.asList(s, x, y, t), engine.sortedReversedByUpwardRank());
+    }
+
+    // without transfers the longer y ranks above x
+    @Test
+    public void upwardRanksOnOneVm(){
+        TimingEngine engine = new TimingEngine(workflow);
+        engine.computeUpwardRanks(Arrays.asList(VM_TYPE, FAST_VM_TYPE), oneVmSchedule());
+        assertEquals(4.5f, engine.upwardRank(s), 1.0e-4f);
+        assertEquals(1.5f, engine.upwardRank(x), 1.0e-4f);
+        assertEquals(3.0f, engine.upwardRank(y), 1.0e-4f);
+        assertEquals(Arrays.asList(s, y, x, t), engine.sortedReversedByUpwardRank());
+    }
+
+    // one engine of the workflow evaluates schedule after schedule
+    @Test
+    public void estimatedMakespanReusesTimingEngine(){
+        TimingEngine engine = workflow.getTimingEngine();
+        assertEquals(9.0f, workflow.estimatedMakespan(workflow.computeNaiveSchedule(VM_TYPE)), 0.0f);
+        assertEquals(6.0f, workflow.estimatedMakespan(oneVmSchedule()), 0.0f);
+        assertSame(engine, workflow.getTimingEngine());
+    }
+
+}
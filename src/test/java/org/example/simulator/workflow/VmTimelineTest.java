@@ -0,0 +1,95 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// gap finding on a hand-built timeline of tasks running
+// over [2, 5], [7, 8] and [12, 20], so its gaps are
+// [0, 2], [5, 7], [8, 12] and [20, infinity)
+public class VmTimelineTest {
+
+    private VmTimeline timeline(){
+        return new VmTimeline(new float[]{ 2.0f, 7.0f, 12.0f }, new float[]{ 5.0f, 8.0f, 20.0f }, 3);
+    }
+
+    @Test
+    public void gaps(){
+        VmTimeline timeline = timeline();
+        assertEquals(4, timeline.size());
+        assertEquals(0.0f, timeline.gapStart(0), 0.0f);
+        assertEquals(2.0f, timeline.gapEnd(0), 0.0f);
+        assertEquals(5.0f, timeline.gapStart(1), 0.0f);
+        assertEquals(7.0f, timeline.gapEnd(1), 0.0f);
+        assertEquals(8.0f, timeline.gapStart(2), 0.0f);
+        assertEquals(12.0f, timeline.gapEnd(2), 0.0f);
+        assertEquals(20.0f, timeline.gapStart(3), 0.0f);
+        assertEquals(Float.POSITIVE_INFINITY, timeline.gapEnd(3), 0.0f);
+    }
+
+    @Test
+    public void findSlot(){
+        VmTimeline timeline = timeline();
+
+        // fits in the gap containing its possible start time
+        assertEquals(0, timeline.findSlot(0.0f, 2.0f));
+        assertEquals(1, timeline.findSlot(6.0f, 1.0f));
+
+        // the first later gap that is long enough
+        assertEquals(2, timeline.findSlot(0.0f, 3.0f));
+        assertEquals(2, timeline.findSlot(6.0f, 2.0f));
+
+        // the last gap always fits
+        assertEquals(3, timeline.findSlot(0.0f, 5.0f));
+        assertEquals(3, timeline.findSlot(13.0f, 1.0f));
+    }
+
+    @Test
+    public void findSlotStartingAt(){
+        VmTimeline timeline = timeline();
+        assertEquals(2, timeline.findSlotStartingAt(9.0f, 3.0f));
+        assertEquals(-1, timeline.findSlotStartingAt(9.0f, 4.0f));
+        assertEquals(-1, timeline.findSlotStartingAt(8.0f, 1.0f));
+        assertEquals(3, timeline.findSlotStartingAt(25.0f, 100.0f));
+    }
+
+    @Test
+    public void split(){
+        VmTimeline timeline = timeline();
+        timeline.split(2, 9.0f, 10.0f);
+        assertEquals(5, timeline.size());
+        assertEquals(8.0f, timeline.gapStart(2), 0.0f);
+        assertEquals(9.0f, timeline.gapEnd(2), 0.0f);
+        assertEquals(10.0f, timeline.gapStart(3), 0.0f);
+        assertEquals(12.0f, timeline.gapEnd(3), 0.0f);
+
+        // [8, 12] no longer holds 3 seconds, but its parts hold shorter tasks
+        assertEquals(4, timeline.findSlot(0.0f, 3.0f));
+        assertEquals(2, timeline.findSlot(8.5f, 0.5f));
+        assertEquals(3, timeline.findSlot(9.5f, 2.0f));
+        assertEquals(2.0f, timeline.longestGap(), 0.0f);
+    }
+
+    // a joined timeline has the gaps it had before the split
+    @Test
+    public void join(){
+        VmTimeline timeline = timeline();
+        timeline.split(2, 9.0f, 10.0f);
+        timeline.join(2);
+        assertEquals(4, timeline.size());
+        assertEquals(8.0f, timeline.gapStart(2), 0.0f);
+        assertEquals(12.0f, timeline.gapEnd(2), 0.0f);
+        assertEquals(20.0f, timeline.gapStart(3), 0.0f);
+        assertEquals(2, timeline.findSlot(0.0f, 3.0f));
+    }
+
+    // the last gap is unbounded but does not count
+    @Test
+    public void longestGap(){
+        assertEquals(4.0f, timeline().longestGap(), 0.0f);
+        VmTimeline empty = new VmTimeline();
+        assertEquals(0.0f, empty.longestGap(), 0.0f);
+        assertEquals(0, empty.findSlot(3.0f, 5.0f));
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.example.simulator.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+// a workflow parsed from a small DAX file of a job fanning out to two
+// others, written to and read back from a cache
+public class WorkflowCacheTest {
+
+    private static final String DAX = String.join("\n",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<adag xmlns=\"http://pegasus.isi.edu/schema/DAX\" version=\"2.1\" name=\"test\" jobCount=\"3\">",
+            "  <job id=\"ID00000\" namespace=\"Fan\" name=\"split\" version=\"1.0\" runtime=\"10.00\">",
+            "    <uses file=\"a.dat\" link=\"output\" size=\"2000000\"/>",
+            "    <uses file=\"b.dat\" link=\"output\" size=\"3000000\"/>",
+            "  </job>",
+            "  <job id=\"ID00001\" namespace=\"Fan\" name=\"work\" version=\"1.0\" runtime=\"20.00\">",
+            "    <uses file=\"a.dat\" link=\"input\" size=\"2000000\"/>",
+            "  </job>",
+            "  <job id=\"ID00002\" namespace=\"Fan\" name=\"work\" version=\"1.0\" runtime=\"30.00\">",
+            "    <uses file=\"b.dat\" link=\"input\" size=\"3000000\"/>",
+            "  </job>",
+            "  <child ref=\"ID00001\">",
+            "    <parent ref=\"ID00000\"/>",
+            "  </child>",
+            "  <child ref=\"ID00002\">",
+            "    <parent ref=\"ID00000\"/>",
+            "  </child>",
+            "</adag>",
+            "");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dax;
+
+    private Workflow workflow;
+
+    private WorkflowCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        dax = new File(folder.newFolder(), "Fan_3.xml");
+        Files.write(dax.toPath(), DAX.getBytes(StandardCharsets.UTF_8));
+        workflow = new Workflow();
+        workflow.setVerbose(false);
+        workflow.create(dax.getPath());
+        assertEquals(3, workflow.getTaskList().size());
+        cache = new WorkflowCache(folder.newFolder());
+        cache.write(workflow.getName(), workflow.getGraph(), dax, WorkflowCache.checksum(dax));
+    }
+
+    private void assertSameTasks(WorkflowCache.CachedWorkflow cached){
+        assertNotNull(cached);
+        assertEquals(workflow.getName(), cached.getName());
+        List<Task> taskList = workflow.getTaskList();
+        assertEquals(taskList.size(), cached.getTaskList().size());
+        for(int i = 0; i < taskList.size(); i++){
+            Task ti = taskList.get(i);
+            Task ci = cached.getTaskList().get(i);
+            assertEquals(ti.getId(), ci.getId());
+            assertEquals(ti.getName(), ci.getName());
+            assertEquals(i, ci.getIndex());
+            assertEquals(ti.getLength(), ci.getLength(), 0.0f);
+            assertEquals(ti.getPredecessors(), ci.getPredecessors());
+            assertEquals(ti.getSuccessors(), ci.getSuccessors());
+            assertEquals(ti.getTransferredDataSize(), ci.getTransferredDataSize());
+        }
+    }
+
+    // replaces the content of the DAX file, and moves its modification time on
+    private void rewriteDax(String content) throws IOException {
+        long lastModified = dax.lastModified();
+        Files.write(dax.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        dax.setLastModified(lastModified + 10000);
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        assertSameTasks(cache.read(dax));
+    }
+
+    // a DAX file touched without changing its content keeps its cache,
+    // stamped with the new modification time after the first read
+    @Test
+    public void touchedDaxIsRead() throws IOException {
+        dax.setLastModified(dax.lastModified() + 10000);
+        assertSameTasks(cache.read(dax));
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(cache.cacheFileOf(dax).toPath()));
+        assertEquals(dax.lastModified(), header.getLong(4 + 4 + 8 + 8));
+        assertSameTasks(cache.read(dax));
+    }
+
+    // a DAX file changed to content of the same size fails the checksum
+    @Test
+    public void changedDaxOfSameSizeReadsNull() throws IOException {
+        rewriteDax(DAX.replace("runtime=\"30.00\"", "runtime=\"40.00\""));
+        assertNull(cache.read(dax));
+    }
+
+    @Test
+    public void changedDaxOfOtherSizeReadsNull() throws IOException {
+        rewriteDax(DAX.replace("runtime=\"30.00\"", "runtime=\"300.00\""));
+        assertNull(cache.read(dax));
+    }
+
+    @Test
+    public void missingCacheReadsNull() throws IOException {
+        assertNull(new WorkflowCache(folder.newFolder()).read(dax));
+    }
+
+}